@@ -0,0 +1,59 @@
+package com.rendertemplate.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+/**
+ * Entry point of the benchmarks jar. Accepts the usual JMH command line options, always
+ * enables the GC profiler, and after the run prints the normalized allocation per table row
+ * for every benchmark parameterized by {@code rowCount}.
+ */
+public final class BenchmarkRunner {
+
+    private static final String ALLOC_RATE_NORM = "gc.alloc.rate.norm";
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        printAllocationPerRow(results);
+    }
+
+    private static void printAllocationPerRow(Collection<RunResult> results) {
+        System.out.println();
+        System.out.println("Allocation per row (" + ALLOC_RATE_NORM + " / rowCount):");
+        for (RunResult result : results) {
+            String rowCount = result.getParams().getParam("rowCount");
+            Result<?> allocation = result.getSecondaryResults().get(ALLOC_RATE_NORM);
+            if (rowCount == null || allocation == null) {
+                continue;
+            }
+            double perRow = allocation.getScore() / Integer.parseInt(rowCount);
+            System.out.printf("  %-60s %-60s %12.1f B/row%n",
+                    result.getParams().getBenchmark(), describeParams(result), perRow);
+        }
+    }
+
+    private static String describeParams(RunResult result) {
+        StringBuilder sb = new StringBuilder();
+        for (String key : result.getParams().getParamsKeys()) {
+            if (!sb.isEmpty()) sb.append(", ");
+            sb.append(key).append('=').append(result.getParams().getParam(key));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.rendertemplate.benchmark;
+
+import com.rendertemplate.model.RenderResult;
+import com.rendertemplate.renderer.HtmlRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link HtmlRenderer} rendering into memory and streaming to a discarding sink.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xms2g", "-Xmx2g"})
+public class HtmlRendererBenchmark {
+
+    private final HtmlRenderer renderer = new HtmlRenderer();
+
+    @Benchmark
+    public RenderResult render(TableState state) {
+        return renderer.render(state.template);
+    }
+
+    @Benchmark
+    public void renderToStream(TableState state) {
+        renderer.render(state.template, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,49 @@
+package com.rendertemplate.benchmark;
+
+import com.rendertemplate.model.RenderResult;
+import com.rendertemplate.model.Template;
+import com.rendertemplate.renderer.PdfRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the fixed per-document cost of a one-line PDF with and without font reuse. Both
+ * benchmarks render through {@link PdfRenderer}; {@code freshFonts} disables the font pool, so
+ * every document builds new Helvetica fonts as the renderer used to, and {@code pooledFonts}
+ * uses the default pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xms2g", "-Xmx2g"})
+public class PdfDocumentSetupBenchmark {
+
+    private final PdfRenderer freshRenderer = PdfRenderer.builder().idleFontSets(0).build();
+    private final PdfRenderer pooledRenderer = PdfRenderer.builder().build();
+    private final Template template = Template.builder()
+            .name("statement")
+            .heading("Statement")
+            .paragraph("Balance: 42.00")
+            .build();
+
+    @Benchmark
+    public RenderResult freshFonts() {
+        return freshRenderer.render(template);
+    }
+
+    @Benchmark
+    public RenderResult pooledFonts() {
+        return pooledRenderer.render(template);
+    }
+}
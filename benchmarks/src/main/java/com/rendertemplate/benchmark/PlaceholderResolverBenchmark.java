@@ -0,0 +1,49 @@
+package com.rendertemplate.benchmark;
+
+import com.rendertemplate.renderer.CompiledText;
+import com.rendertemplate.renderer.PlaceholderResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures resolving every table cell of {@link TableState}, either by parsing each column
+ * text per call through {@link PlaceholderResolver} or by reusing {@link CompiledText}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xms2g", "-Xmx2g"})
+public class PlaceholderResolverBenchmark {
+
+    @Benchmark
+    public void resolve(TableState state, Blackhole bh) {
+        for (Map<String, Object> row : state.rows) {
+            for (String column : state.columns) {
+                bh.consume(PlaceholderResolver.resolve(column, row));
+            }
+        }
+    }
+
+    @Benchmark
+    public void resolveCompiled(TableState state, Blackhole bh) {
+        CompiledText[] columns = CompiledText.compileAll(state.columns);
+        for (Map<String, Object> row : state.rows) {
+            for (CompiledText column : columns) {
+                bh.consume(column.resolve(row));
+            }
+        }
+    }
+}
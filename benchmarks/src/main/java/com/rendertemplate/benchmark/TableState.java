@@ -0,0 +1,117 @@
+package com.rendertemplate.benchmark;
+
+import com.rendertemplate.model.ColumnarRows;
+import com.rendertemplate.model.IndexedRow;
+import com.rendertemplate.model.RowSchema;
+import com.rendertemplate.model.Template;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark fixture: a template with a heading, a paragraph and one table whose rows are
+ * generated from a fixed seed, so every run renders exactly the same data.
+ *
+ * <p>{@code columnarTemplate} and {@code indexedTemplate} render the same rows from a
+ * {@link ColumnarRows} set and from {@link IndexedRow}s.</p>
+ *
+ * <p>{@code escapeDensity} is the fraction of cell values that contain a character needing
+ * HTML or CSV escaping.</p>
+ */
+@State(Scope.Benchmark)
+public class TableState {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ";
+    private static final char[] SPECIAL_CHARS = {'<', '>', '&', '"', '\'', ','};
+
+    @Param({"100", "10000"})
+    public int rowCount;
+
+    @Param({"4", "16"})
+    public int columnCount;
+
+    @Param({"8", "64"})
+    public int valueLength;
+
+    @Param({"0.0", "0.1"})
+    public double escapeDensity;
+
+    public Template template;
+    public Template columnarTemplate;
+    public Template indexedTemplate;
+    public List<String> columns;
+    public List<Map<String, Object>> rows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+
+        List<String> headers = new ArrayList<>(columnCount);
+        columns = new ArrayList<>(columnCount);
+        for (int c = 0; c < columnCount; c++) {
+            headers.add("Column " + c);
+            columns.add("{{c" + c + "}}");
+        }
+
+        rows = new ArrayList<>(rowCount);
+        for (int r = 0; r < rowCount; r++) {
+            Map<String, Object> row = new HashMap<>();
+            for (int c = 0; c < columnCount; c++) {
+                row.put("c" + c, randomValue(random));
+            }
+            rows.add(row);
+        }
+
+        Template.Builder layout = Template.builder()
+                .name("benchmark")
+                .heading("Report {{title}}")
+                .paragraph("Generated for {{company}} on {{date}}")
+                .table(headers, columns)
+                .data("title", "Quarterly <Summary>")
+                .data("company", "Acme & Sons")
+                .data("date", "2026-01-01");
+        template = layout.data("rows", rows).build();
+
+        ColumnarRows.Builder columnar = ColumnarRows.builder();
+        for (int c = 0; c < columnCount; c++) {
+            columnar.stringColumn("c" + c);
+        }
+        for (Map<String, Object> row : rows) {
+            for (int c = 0; c < columnCount; c++) {
+                columnar.appendString((String) row.get("c" + c));
+            }
+        }
+        columnarTemplate = layout.rows(columnar.build()).build();
+
+        RowSchema schema = RowSchema.of(IntStream.range(0, columnCount).mapToObj(c -> "c" + c).toList());
+        List<IndexedRow> indexed = new ArrayList<>(rowCount);
+        for (Map<String, Object> row : rows) {
+            Object[] values = new Object[columnCount];
+            for (int c = 0; c < columnCount; c++) {
+                values[c] = row.get("c" + c);
+            }
+            indexed.add(schema.row(values));
+        }
+        indexedTemplate = layout.rows(indexed).build();
+    }
+
+    private String randomValue(Random random) {
+        char[] value = new char[valueLength];
+        for (int i = 0; i < valueLength; i++) {
+            value[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        if (random.nextDouble() < escapeDensity) {
+            value[random.nextInt(valueLength)] = SPECIAL_CHARS[random.nextInt(SPECIAL_CHARS.length)];
+        }
+        return new String(value);
+    }
+}
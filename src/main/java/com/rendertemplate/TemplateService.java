@@ -1,25 +1,112 @@
 package com.rendertemplate;
 
+import com.rendertemplate.cache.RenderCache;
 import com.rendertemplate.factory.RendererFactory;
+import com.rendertemplate.jfr.TemplateRenderEvent;
+import com.rendertemplate.metrics.RenderEvent;
+import com.rendertemplate.metrics.RenderListener;
+import com.rendertemplate.metrics.RenderMetrics;
+import com.rendertemplate.model.ChunkedOutputStream;
 import com.rendertemplate.model.RenderFormat;
+import com.rendertemplate.model.RenderOutcome;
 import com.rendertemplate.model.RenderResult;
 import com.rendertemplate.model.Template;
+import com.rendertemplate.renderer.PassRenderer;
+import com.rendertemplate.renderer.RenderException;
+import com.rendertemplate.renderer.RenderPass;
+import com.rendertemplate.renderer.RenderSizeHistory;
+import com.rendertemplate.renderer.RenderWalker;
 import com.rendertemplate.renderer.TemplateRenderer;
 
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
 /**
  * Main service for rendering templates to various output formats.
  * Provides a high-level API for template rendering operations.
  */
 public class TemplateService {
 
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+    private static final System.Logger LOG = System.getLogger(TemplateService.class.getName());
+
     private final RendererFactory rendererFactory;
+    private final Executor batchExecutor;
+    private final RenderCache cache;
+    private final RenderListener listener;
 
     public TemplateService() {
-        this.rendererFactory = new RendererFactory();
+        this(new RendererFactory());
     }
 
     public TemplateService(RendererFactory rendererFactory) {
+        this(rendererFactory, null);
+    }
+
+    /**
+     * Creates a service whose batch operations run on the given executor.
+     *
+     * @param rendererFactory the renderer factory
+     * @param batchExecutor   executor for batch rendering, or null to use a virtual thread per template
+     */
+    public TemplateService(RendererFactory rendererFactory, Executor batchExecutor) {
+        this(rendererFactory, batchExecutor, null);
+    }
+
+    /**
+     * Creates a service that serves repeated renders of identical templates from a cache.
+     *
+     * @param rendererFactory the renderer factory
+     * @param batchExecutor   executor for batch rendering, or null to use a virtual thread per template
+     * @param cache           the render result cache, or null to disable caching
+     */
+    public TemplateService(RendererFactory rendererFactory, Executor batchExecutor, RenderCache cache) {
+        this(rendererFactory, batchExecutor, cache, null);
+    }
+
+    /**
+     * Creates a service that reports every render to a listener, e.g. a {@link RenderMetrics}.
+     *
+     * @param rendererFactory the renderer factory
+     * @param batchExecutor   executor for batch rendering, or null to use a virtual thread per template
+     * @param cache           the render result cache, or null to disable caching
+     * @param listener        the render listener, or null to report nothing
+     */
+    public TemplateService(RendererFactory rendererFactory, Executor batchExecutor, RenderCache cache,
+                           RenderListener listener) {
         this.rendererFactory = rendererFactory;
+        this.batchExecutor = batchExecutor;
+        this.cache = cache;
+        this.listener = listener;
     }
 
     /**
@@ -31,7 +118,371 @@ public class TemplateService {
      */
     public RenderResult render(Template template, RenderFormat format) {
         TemplateRenderer renderer = rendererFactory.getRenderer(format);
-        return renderer.render(template);
+        return render(renderer, template);
+    }
+
+    /**
+     * Renders a template to the specified format, streaming the output to the given stream
+     * as it is produced. The stream is flushed but not closed.
+     *
+     * @param template the template to render
+     * @param format   the desired output format
+     * @param out      the stream to write the output to
+     */
+    public void render(Template template, RenderFormat format, OutputStream out) {
+        TemplateRenderer renderer = rendererFactory.getRenderer(format);
+        TemplateRenderEvent event = TemplateRenderEvent.start();
+        if (listener == null && !event.isEnabled()) {
+            renderer.render(template, out);
+            return;
+        }
+        long start = System.nanoTime();
+        CountingOutputStream counting = new CountingOutputStream(out);
+        long rows;
+        try {
+            rows = stream(renderer, template, counting);
+        } catch (RuntimeException e) {
+            report(template, format, start, event, 0, -1, e);
+            throw e;
+        }
+        report(template, format, start, event, counting.count, rows, null);
+    }
+
+    /**
+     * Renders a template to the specified format, streaming the output to the given channel
+     * as it is produced. The channel is not closed.
+     *
+     * @param template the template to render
+     * @param format   the desired output format
+     * @param channel  the channel to write the output to
+     */
+    public void render(Template template, RenderFormat format, WritableByteChannel channel) {
+        TemplateRenderer renderer = rendererFactory.getRenderer(format);
+        TemplateRenderEvent event = TemplateRenderEvent.start();
+        if (listener == null && !event.isEnabled()) {
+            renderer.render(template, channel);
+            return;
+        }
+        long start = System.nanoTime();
+        CountingChannel counting = new CountingChannel(channel);
+        long rows;
+        try {
+            if (renderer instanceof PassRenderer) {
+                rows = stream(renderer, template, Channels.newOutputStream(counting));
+            } else {
+                renderer.render(template, counting);
+                rows = template.knownRowCount();
+            }
+        } catch (RuntimeException e) {
+            report(template, format, start, event, 0, -1, e);
+            throw e;
+        }
+        report(template, format, start, event, counting.count, rows, null);
+    }
+
+    /**
+     * Renders a template to a file, streaming the output through a {@link FileChannel} so the
+     * document never has to fit in the heap. The output is written to a temporary file next to
+     * the target and moved into place once complete, so readers never see a partial file; an
+     * existing file is replaced. A new file gets the default permissions of any file created
+     * in the directory, and a replaced file keeps its POSIX permissions. The temporary file is
+     * deleted if rendering fails.
+     *
+     * @param template the template to render
+     * @param format   the desired output format
+     * @param target   the file to write
+     * @return the number of bytes written
+     * @throws RenderException if rendering fails or the file cannot be written
+     */
+    public long renderToFile(Template template, RenderFormat format, Path target) {
+        TemplateRenderer renderer = rendererFactory.getRenderer(format);
+        Path directory = target.toAbsolutePath().getParent();
+        TemplateRenderEvent event = TemplateRenderEvent.start();
+        long start = System.nanoTime();
+        Path temp = null;
+        try {
+            temp = createTempSibling(directory, target);
+            long size;
+            long rows;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), FILE_BUFFER_SIZE)) {
+                rows = stream(renderer, template, out);
+                out.flush();
+                size = channel.size();
+            }
+            copyPermissions(target, temp);
+            moveIntoPlace(temp, target);
+            report(template, format, start, event, size, rows, null);
+            return size;
+        } catch (IOException e) {
+            RenderException failure = new RenderException("Failed to write " + format + " output to " + target, e);
+            report(template, format, start, event, 0, -1, failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            report(template, format, start, event, 0, -1, e);
+            throw e;
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // best effort; the file is only left behind if the directory became unwritable
+                }
+            }
+        }
+    }
+
+    /**
+     * Renders a template to several formats in one pass. Sections and rows are walked once and
+     * every placeholder is resolved once, then fed to each format's renderer. Renderers that do
+     * not implement {@link PassRenderer} are invoked separately.
+     *
+     * @param template the template to render
+     * @param formats  the desired output formats
+     * @return the render result for each requested format
+     */
+    public Map<RenderFormat, RenderResult> render(Template template, Set<RenderFormat> formats) {
+        TemplateRenderEvent event = TemplateRenderEvent.start();
+        long start = System.nanoTime();
+        Map<RenderFormat, RenderResult> results = new EnumMap<>(RenderFormat.class);
+        RenderSizeHistory sizeHistory = RenderSizeHistory.shared();
+        Map<RenderFormat, ChunkedOutputStream> outputs = new EnumMap<>(RenderFormat.class);
+        List<RenderPass> passes = new ArrayList<>(formats.size());
+        try {
+            for (RenderFormat format : formats) {
+                TemplateRenderer renderer = rendererFactory.getRenderer(format);
+                if (renderer instanceof PassRenderer passRenderer) {
+                    ChunkedOutputStream out = new ChunkedOutputStream(
+                            ChunkedOutputStream.DEFAULT_CHUNK_SIZE, sizeHistory.estimate(template, format));
+                    passes.add(passRenderer.openPass(template, out));
+                    outputs.put(format, out);
+                } else {
+                    results.put(format, render(renderer, template));
+                }
+            }
+        } catch (RuntimeException e) {
+            try {
+                RenderWalker.closeAll(passes, e);
+            } catch (IOException ignored) {
+                // already recorded as suppressed on e
+            }
+            throw e;
+        }
+        if (passes.isEmpty()) {
+            return results;
+        }
+
+        long rows;
+        try {
+            rows = RenderWalker.walk(template, passes);
+        } catch (IOException e) {
+            RenderException failure = new RenderException("Failed to render " + outputs.keySet() + " output", e);
+            outputs.keySet().forEach(format -> notifyListener(template, format, start, 0, -1, failure));
+            event.complete(template, formatNames(outputs.keySet()), -1, 0, failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            outputs.keySet().forEach(format -> notifyListener(template, format, start, 0, -1, e));
+            event.complete(template, formatNames(outputs.keySet()), -1, 0, e);
+            throw e;
+        }
+        long bytes = 0;
+        for (Map.Entry<RenderFormat, ChunkedOutputStream> output : outputs.entrySet()) {
+            RenderFormat format = output.getKey();
+            RenderResult result = RenderResult.of(output.getValue().toContent(), format, template.getName(), rows);
+            sizeHistory.record(template, format, rows, result.size());
+            notifyListener(template, format, start, result.size(), rows, null);
+            results.put(format, result);
+            bytes += result.size();
+        }
+        event.complete(template, formatNames(outputs.keySet()), rows, bytes, null);
+        return results;
+    }
+
+    /**
+     * Renders a batch of templates concurrently, with at most one template per available
+     * processor in flight at a time.
+     *
+     * @param templates the templates to render
+     * @param format    the desired output format
+     * @return one outcome per template, in input order
+     * @see #renderAll(Collection, RenderFormat, int)
+     */
+    public List<RenderOutcome> renderAll(Collection<Template> templates, RenderFormat format) {
+        return renderAll(templates, format, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Renders a batch of templates concurrently. Each template is rendered on a virtual thread,
+     * or on the executor given at construction. A template that fails to render yields a failed
+     * {@link RenderOutcome} and does not affect the others.
+     *
+     * @param templates      the templates to render
+     * @param format         the desired output format
+     * @param maxParallelism maximum number of templates rendered at the same time
+     * @return one outcome per template, in input order
+     * @throws IllegalArgumentException if no renderer is registered for the format
+     * @throws RenderException          if the calling thread is interrupted while waiting
+     */
+    public List<RenderOutcome> renderAll(Collection<Template> templates, RenderFormat format, int maxParallelism) {
+        RenderOutcome[] outcomes = new RenderOutcome[templates.size()];
+        renderAll(templates, format, maxParallelism, outcome -> outcomes[outcome.index()] = outcome);
+        return List.of(outcomes);
+    }
+
+    /**
+     * Renders a batch of templates concurrently, handing each outcome to the callback as soon
+     * as that template completes. The callback may be invoked from several threads at once.
+     * Returns once every template has completed.
+     *
+     * @param templates      the templates to render
+     * @param format         the desired output format
+     * @param maxParallelism maximum number of templates rendered at the same time
+     * @param onCompletion   receives each outcome in completion order
+     * @throws IllegalArgumentException if no renderer is registered for the format
+     * @throws RenderException          if the calling thread is interrupted while waiting
+     */
+    public void renderAll(Collection<Template> templates, RenderFormat format, int maxParallelism,
+                          Consumer<RenderOutcome> onCompletion) {
+        if (maxParallelism < 1) {
+            throw new IllegalArgumentException("Max parallelism must be at least 1: " + maxParallelism);
+        }
+        TemplateRenderer renderer = rendererFactory.getRenderer(format);
+        Semaphore permits = new Semaphore(maxParallelism);
+        CountDownLatch remaining = new CountDownLatch(templates.size());
+        ExecutorService ownExecutor = batchExecutor == null ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        Executor executor = ownExecutor != null ? ownExecutor : batchExecutor;
+
+        try {
+            int index = 0;
+            for (Template template : templates) {
+                int position = index++;
+                permits.acquire();
+                Runnable task = () -> {
+                    try {
+                        onCompletion.accept(renderOne(renderer, position, template));
+                    } finally {
+                        permits.release();
+                        remaining.countDown();
+                    }
+                };
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    remaining.countDown();
+                    onCompletion.accept(RenderOutcome.failure(position, template.getName(), e));
+                }
+            }
+            remaining.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RenderException("Interrupted while waiting for batch rendering", e);
+        } finally {
+            if (ownExecutor != null) {
+                ownExecutor.close();
+            }
+        }
+    }
+
+    /**
+     * Streams the template and returns the number of table rows written. Pass renderers report
+     * the rows they walked; other renderers are taken to write the template's known rows.
+     */
+    private static long stream(TemplateRenderer renderer, Template template, OutputStream out) {
+        if (renderer instanceof PassRenderer passRenderer) {
+            return passRenderer.renderRows(template, out);
+        }
+        renderer.render(template, out);
+        return template.knownRowCount();
+    }
+
+    private RenderResult render(TemplateRenderer renderer, Template template) {
+        TemplateRenderEvent event = TemplateRenderEvent.start();
+        long start = System.nanoTime();
+        RenderResult result;
+        try {
+            result = cache == null
+                    ? renderer.render(template)
+                    : cache.getOrRender(template, renderer.getFormat(), () -> renderer.render(template));
+        } catch (RuntimeException | Error e) {
+            report(template, renderer.getFormat(), start, event, 0, -1, e);
+            throw e;
+        }
+        long rows = result.rowCount() >= 0 ? result.rowCount() : template.knownRowCount();
+        report(template, renderer.getFormat(), start, event, result.size(), rows, null);
+        return result;
+    }
+
+    private void report(Template template, RenderFormat format, long start, TemplateRenderEvent event,
+                        long bytes, long rows, Throwable error) {
+        event.complete(template, format.name(), rows, bytes, error);
+        notifyListener(template, format, start, bytes, rows, error);
+    }
+
+    private void notifyListener(Template template, RenderFormat format, long start, long bytes, long rows,
+                                Throwable error) {
+        if (listener == null) {
+            return;
+        }
+        // A failing listener must not change the render's outcome
+        try {
+            listener.onRender(new RenderEvent(template.getName(), format, System.nanoTime() - start, bytes, rows, error));
+        } catch (RuntimeException e) {
+            if (error != null) {
+                error.addSuppressed(e);
+            } else {
+                LOG.log(System.Logger.Level.WARNING, "Render listener failed for " + template.getName(), e);
+            }
+        }
+    }
+
+    private static String formatNames(Set<RenderFormat> formats) {
+        StringJoiner names = new StringJoiner(",");
+        for (RenderFormat format : formats) {
+            names.add(format.name());
+        }
+        return names.toString();
+    }
+
+    /**
+     * Creates an empty file next to the target. Unlike {@link Files#createTempFile}, which
+     * restricts the file to its owner, this applies the process umask as for any new file.
+     */
+    private static Path createTempSibling(Path directory, Path target) throws IOException {
+        while (true) {
+            String suffix = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36);
+            try {
+                return Files.createFile(directory.resolve("." + target.getFileName() + "." + suffix + ".tmp"));
+            } catch (FileAlreadyExistsException e) {
+                // name taken by a concurrent export, try another
+            }
+        }
+    }
+
+    private static void copyPermissions(Path target, Path temp) throws IOException {
+        if (Files.exists(target) && Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+        }
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private RenderOutcome renderOne(TemplateRenderer renderer, int index, Template template) {
+        try {
+            return RenderOutcome.success(index, render(renderer, template));
+        } catch (RuntimeException e) {
+            return RenderOutcome.failure(index, template.getName(), e);
+        } catch (Throwable e) {
+            // An Error still yields an outcome, otherwise the batch result would have a gap
+            return RenderOutcome.failure(index, template.getName(),
+                    new RenderException("Rendering failed for " + template.getName(), e));
+        }
     }
 
     /**
@@ -64,6 +515,24 @@ public class TemplateService {
         return render(template, RenderFormat.CSV);
     }
 
+    /**
+     * Gets the render result cache.
+     *
+     * @return the cache, or null if caching is disabled
+     */
+    public RenderCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Gets the render listener.
+     *
+     * @return the listener, or null if renders are not reported
+     */
+    public RenderListener getListener() {
+        return listener;
+    }
+
     /**
      * Gets the underlying renderer factory for advanced customization.
      *
@@ -72,4 +541,58 @@ public class TemplateService {
     public RendererFactory getRendererFactory() {
         return rendererFactory;
     }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // the caller owns the stream
+            flush();
+        }
+    }
+
+    private static final class CountingChannel implements WritableByteChannel {
+
+        private final WritableByteChannel channel;
+        private long count;
+
+        CountingChannel(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int written = channel.write(src);
+            count += written;
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
 }
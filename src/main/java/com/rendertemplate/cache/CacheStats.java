@@ -0,0 +1,26 @@
+package com.rendertemplate.cache;
+
+/**
+ * Point-in-time statistics of a {@link RenderCache}.
+ *
+ * @param hits        lookups served from the cache
+ * @param misses      lookups that had to render, including expired entries
+ * @param evictions   entries removed to stay within the size bound or because they expired
+ * @param entryCount  entries currently cached
+ * @param cachedBytes total content bytes currently cached
+ */
+public record CacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        int entryCount,
+        long cachedBytes
+) {
+    /**
+     * Returns the fraction of lookups served from the cache, or 0 if there were none.
+     */
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,192 @@
+package com.rendertemplate.cache;
+
+import com.rendertemplate.model.RenderFormat;
+import com.rendertemplate.model.RenderResult;
+import com.rendertemplate.model.Template;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of render results keyed on output format and {@link TemplateFingerprint}.
+ *
+ * <p>The cache is bounded by the total size of cached content; the least recently used
+ * entries are evicted first. Entries can optionally expire after a fixed time to live; expired
+ * entries are dropped when next looked up.
+ * Results larger than the whole budget are never cached. Templates with an explicit
+ * {@link com.rendertemplate.model.RowSource} are not cached, since their rows cannot be
+ * fingerprinted without consuming them, and neither are templates with a custom
+ * {@link com.rendertemplate.format.ValueFormat}, whose output cannot be known from its
+ * settings.</p>
+ *
+ * <p>Concurrent misses on the same key render once: the first caller renders while the others
+ * wait for and share its result. If that render fails, each waiting caller renders for
+ * itself.</p>
+ *
+ * <p>Cached results are shared between callers and must be treated as read-only.</p>
+ */
+public final class RenderCache {
+
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<Key, CompletableFuture<RenderResult>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long cachedBytes;
+
+    /**
+     * Creates a cache whose entries never expire.
+     *
+     * @param maxBytes maximum total content size of cached results
+     */
+    public RenderCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * Creates a cache whose entries expire after the given time to live.
+     *
+     * @param maxBytes maximum total content size of cached results
+     * @param ttl      time to live of an entry, or null for no expiry
+     */
+    public RenderCache(long maxBytes, Duration ttl) {
+        this(maxBytes, ttl, System::nanoTime);
+    }
+
+    RenderCache(long maxBytes, Duration ttl, LongSupplier nanoClock) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Max bytes must be positive: " + maxBytes);
+        }
+        if (ttl != null && (ttl.isNegative() || ttl.isZero())) {
+            throw new IllegalArgumentException("TTL must be positive: " + ttl);
+        }
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttl == null ? 0 : ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the cached result for the template and format, rendering and caching it on a miss.
+     *
+     * @param template the template to render
+     * @param format   the output format
+     * @param renderer renders the template on a miss
+     * @return the cached or freshly rendered result
+     */
+    public RenderResult getOrRender(Template template, RenderFormat format, Supplier<RenderResult> renderer) {
+        if (template.hasRowSource() || !TemplateFingerprint.supports(template)) {
+            return renderer.get();
+        }
+
+        Key key = new Key(format, TemplateFingerprint.of(template));
+        RenderResult cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        CompletableFuture<RenderResult> pending = new CompletableFuture<>();
+        CompletableFuture<RenderResult> leader = inFlight.putIfAbsent(key, pending);
+        if (leader != null) {
+            RenderResult shared = leader.exceptionally(e -> null).join();
+            if (shared != null) {
+                hits.increment();
+                return shared;
+            }
+            misses.increment();
+            return renderer.get();
+        }
+        try {
+            // The previous leader may have stored its result since the lookup above
+            RenderResult result = lookup(key);
+            if (result != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                result = renderer.get();
+                store(key, result);
+            }
+            pending.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    /**
+     * Removes all entries. Statistics are kept.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        cachedBytes = 0;
+    }
+
+    /**
+     * Returns the current cache statistics.
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), cachedBytes);
+    }
+
+    private synchronized RenderResult lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, nanoClock.getAsLong())) {
+            remove(key, entry);
+            return null;
+        }
+        return entry.result();
+    }
+
+    private synchronized void store(Key key, RenderResult result) {
+        long size = result.size();
+        if (size > maxBytes) {
+            return;
+        }
+        long expiresAt = ttlNanos == 0 ? 0 : nanoClock.getAsLong() + ttlNanos;
+        Entry previous = entries.put(key, new Entry(result, size, expiresAt));
+        if (previous != null) {
+            cachedBytes -= previous.size();
+        }
+        cachedBytes += size;
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Entry> eldestFirst = entries.values().iterator();
+        while (cachedBytes > maxBytes && eldestFirst.hasNext()) {
+            Entry eldest = eldestFirst.next();
+            eldestFirst.remove();
+            cachedBytes -= eldest.size();
+            evictions.increment();
+        }
+    }
+
+    private void remove(Key key, Entry entry) {
+        entries.remove(key);
+        cachedBytes -= entry.size();
+        evictions.increment();
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return ttlNanos > 0 && now - entry.expiresAt() >= 0;
+    }
+
+    private record Key(RenderFormat format, String fingerprint) {}
+
+    private record Entry(RenderResult result, long size, long expiresAt) {}
+}
@@ -0,0 +1,149 @@
+package com.rendertemplate.cache;
+
+import com.rendertemplate.format.ValueFormat;
+import com.rendertemplate.model.Template;
+import com.rendertemplate.model.TemplateSection;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes a stable SHA-256 fingerprint of a template's name, sections, data, value formats
+ * and locale.
+ *
+ * <p>Values are fingerprinted by their runtime class and string form. The class matters
+ * because value formats and format directives pick their output by type: {@code 5} and
+ * {@code "5"} print alike by default, but not under {@code {{amount:currency}}}. Maps are
+ * hashed in key order and lists in element order, so two templates built from equal data get
+ * the same fingerprint regardless of map iteration order. Value formats are fingerprinted by
+ * the settings that determine their output, see {@link ValueFormat#describe}; templates with
+ * any other format cannot be fingerprinted, see {@link #supports}.</p>
+ */
+public final class TemplateFingerprint {
+
+    private TemplateFingerprint() {}
+
+    /**
+     * Returns true if the template can be fingerprinted: all its value formats are built-in
+     * formats whose settings are known. A lambda or custom format could write anything.
+     */
+    public static boolean supports(Template template) {
+        for (ValueFormat format : template.getFormats().values()) {
+            if (ValueFormat.describe(format) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hex-encoded fingerprint of the template.
+     *
+     * @param template the template to fingerprint
+     * @return the fingerprint
+     * @throws IllegalArgumentException if the template has a value format that is not supported
+     */
+    public static String of(Template template) {
+        MessageDigest digest = newDigest();
+        // Buffered so the digest is fed in blocks rather than a byte or two per write
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new DigestOutputStream(OutputStream.nullOutputStream(), digest), 4096))) {
+            writeString(out, template.getName());
+            out.writeInt(template.getSections().size());
+            for (TemplateSection section : template.getSections()) {
+                switch (section) {
+                    case TemplateSection.Heading h -> {
+                        out.writeByte('H');
+                        writeString(out, h.text());
+                    }
+                    case TemplateSection.Paragraph p -> {
+                        out.writeByte('P');
+                        writeString(out, p.text());
+                    }
+                    case TemplateSection.Table t -> {
+                        out.writeByte('T');
+                        writeValue(out, t.headers());
+                        writeValue(out, t.columns());
+                    }
+                }
+            }
+            writeValue(out, template.getData());
+            if (!template.getFormats().isEmpty()) {
+                out.writeByte('F');
+                writeFormats(out, template.getFormats());
+            }
+            writeString(out, template.getLocale().toLanguageTag());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte('n');
+            case Map<?, ?> map -> {
+                out.writeByte('m');
+                out.writeInt(map.size());
+                List<Object> keys = new ArrayList<>(map.keySet());
+                keys.sort(Comparator.comparing(String::valueOf));
+                for (Object key : keys) {
+                    writeString(out, String.valueOf(key));
+                    writeValue(out, map.get(key));
+                }
+            }
+            case Iterable<?> iterable -> {
+                out.writeByte('l');
+                for (Object element : iterable) {
+                    out.writeByte(',');
+                    writeValue(out, element);
+                }
+                out.writeByte(']');
+            }
+            default -> {
+                out.writeByte('s');
+                writeString(out, value.getClass().getName());
+                writeString(out, String.valueOf(value));
+            }
+        }
+    }
+
+    private static void writeFormats(DataOutputStream out, Map<String, ValueFormat> formats) throws IOException {
+        List<String> keys = new ArrayList<>(formats.keySet());
+        keys.sort(null);
+        out.writeInt(keys.size());
+        for (String key : keys) {
+            String description = ValueFormat.describe(formats.get(key));
+            if (description == null) {
+                throw new IllegalArgumentException("Value format for '%s' cannot be fingerprinted: %s"
+                        .formatted(key, formats.get(key)));
+            }
+            writeString(out, key);
+            writeString(out, description);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeInt(value.length());
+        out.writeChars(value);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
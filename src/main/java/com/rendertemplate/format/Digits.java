@@ -0,0 +1,116 @@
+package com.rendertemplate.format;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Writes numbers and ISO-8601 dates and instants into a {@link StringBuilder} without
+ * creating temporary objects.
+ */
+final class Digits {
+
+    static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final long DAYS_0000_TO_1970 = 719_528;
+    // Instant.toString pads four-digit years and adds a sign beyond them
+    private static final long MIN_FAST_SECOND = -62_135_596_800L; // 0001-01-01T00:00:00Z
+    private static final long MAX_FAST_SECOND = 253_402_300_799L; // 9999-12-31T23:59:59Z
+
+    private Digits() {}
+
+    /**
+     * Returns the number of decimal digits of a non-negative value.
+     */
+    static int count(long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Appends the date as {@link LocalDate#toString()} does.
+     */
+    static void appendDate(LocalDate date, StringBuilder out) {
+        int year = date.getYear();
+        if (year < 1 || year > 9999) {
+            out.append(date);
+            return;
+        }
+        appendDate(year, date.getMonthValue(), date.getDayOfMonth(), out);
+    }
+
+    /**
+     * Appends the instant as {@link Instant#toString()} does.
+     */
+    static void appendInstant(Instant instant, StringBuilder out) {
+        long seconds = instant.getEpochSecond();
+        if (seconds < MIN_FAST_SECOND || seconds > MAX_FAST_SECOND) {
+            out.append(instant);
+            return;
+        }
+        long epochDay = Math.floorDiv(seconds, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(seconds, SECONDS_PER_DAY);
+
+        // Civil date from day count, counting years from March so leap days fall last
+        long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;
+        long year = (400 * zeroDay + 591) / 146_097;
+        long dayOfYear = zeroDay - (365 * year + year / 4 - year / 100 + year / 400);
+        if (dayOfYear < 0) {
+            year--;
+            dayOfYear = zeroDay - (365 * year + year / 4 - year / 100 + year / 400);
+        }
+        int marchMonth = (int) (dayOfYear * 5 + 2) / 153;
+        int month = (marchMonth + 2) % 12 + 1;
+        int day = (int) dayOfYear - (marchMonth * 306 + 5) / 10 + 1;
+        year += marchMonth / 10;
+
+        appendDate((int) year, month, day, out);
+        out.append('T');
+        appendTwoDigits(secondOfDay / 3600, out);
+        out.append(':');
+        appendTwoDigits(secondOfDay / 60 % 60, out);
+        out.append(':');
+        appendTwoDigits(secondOfDay % 60, out);
+        int nanos = instant.getNano();
+        if (nanos > 0) {
+            out.append('.');
+            if (nanos % 1_000_000 == 0) {
+                appendPadded(nanos / 1_000_000, 3, out);
+            } else if (nanos % 1_000 == 0) {
+                appendPadded(nanos / 1_000, 6, out);
+            } else {
+                appendPadded(nanos, 9, out);
+            }
+        }
+        out.append('Z');
+    }
+
+    private static void appendDate(int year, int month, int day, StringBuilder out) {
+        appendPadded(year, 4, out);
+        out.append('-');
+        appendTwoDigits(month, out);
+        out.append('-');
+        appendTwoDigits(day, out);
+    }
+
+    private static void appendTwoDigits(int value, StringBuilder out) {
+        out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private static void appendPadded(long value, int width, StringBuilder out) {
+        for (int i = count(value); i < width; i++) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+}
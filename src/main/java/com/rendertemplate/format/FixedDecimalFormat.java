@@ -0,0 +1,133 @@
+package com.rendertemplate.format;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * {@link ValueFormat#decimal}: numbers with a fixed number of fraction digits, rounded half up.
+ *
+ * <p>Integers and doubles whose scaled value fits in a {@code long} are written digit by
+ * digit. Doubles are scaled in double arithmetic before rounding, which is exact for all but
+ * a few values lying within one ulp of a rounding boundary; use {@link BigDecimal} values
+ * where exact decimal rounding matters.</p>
+ */
+record FixedDecimalFormat(int fractionDigits, char groupingSeparator, char decimalSeparator) implements ValueFormat {
+
+    static final char NO_GROUPING = '\0';
+
+    // Beyond this a scaled double no longer fits in a long
+    private static final double MAX_SCALED = 9.0e18;
+
+    FixedDecimalFormat {
+        if (fractionDigits < 0 || fractionDigits > 18) {
+            throw new IllegalArgumentException("Fraction digits must be between 0 and 18: " + fractionDigits);
+        }
+    }
+
+    @Override
+    public void formatTo(Object value, StringBuilder out) {
+        switch (value) {
+            case Integer i -> formatTo(i.longValue(), out);
+            case Long l -> formatTo(l.longValue(), out);
+            case Short s -> formatTo(s.longValue(), out);
+            case Byte b -> formatTo(b.longValue(), out);
+            case Double d -> formatTo(d.doubleValue(), out);
+            case Float f -> formatTo(f.doubleValue(), out);
+            case BigDecimal d -> formatBigDecimal(d, out);
+            case BigInteger i -> formatBigDecimal(new BigDecimal(i), out);
+            case null, default -> StandardFormat.INSTANCE.formatTo(value, out);
+        }
+    }
+
+    @Override
+    public void formatTo(long value, StringBuilder out) {
+        if (value < 0) {
+            out.append('-');
+        }
+        appendInteger(value, out);
+        if (fractionDigits > 0) {
+            out.append(decimalSeparator);
+            for (int i = 0; i < fractionDigits; i++) {
+                out.append('0');
+            }
+        }
+    }
+
+    @Override
+    public void formatTo(double value, StringBuilder out) {
+        double scaled = Math.abs(value) * Digits.POWERS_OF_TEN[fractionDigits];
+        if (!(scaled < MAX_SCALED)) {
+            // NaN, infinities and huge values
+            if (Double.isFinite(value)) {
+                formatBigDecimal(new BigDecimal(value), out);
+            } else {
+                out.append(value);
+            }
+            return;
+        }
+        long units = Math.round(scaled);
+        appendUnits(value < 0 && units != 0, units, out);
+    }
+
+    private void formatBigDecimal(BigDecimal value, StringBuilder out) {
+        BigDecimal rounded = value.setScale(fractionDigits, RoundingMode.HALF_UP);
+        if (rounded.precision() <= 18) {
+            long units = rounded.unscaledValue().longValue();
+            appendUnits(units < 0, Math.abs(units), out);
+            return;
+        }
+        String plain = rounded.abs().toPlainString();
+        int point = fractionDigits == 0 ? plain.length() : plain.length() - fractionDigits - 1;
+        if (rounded.signum() < 0) {
+            out.append('-');
+        }
+        int start = out.length();
+        out.append(plain, 0, point);
+        group(out, start);
+        if (fractionDigits > 0) {
+            out.append(decimalSeparator).append(plain, point + 1, plain.length());
+        }
+    }
+
+    /**
+     * Appends a non-negative number of units of {@code 10^-fractionDigits}.
+     */
+    private void appendUnits(boolean negative, long units, StringBuilder out) {
+        if (negative) {
+            out.append('-');
+        }
+        long scale = Digits.POWERS_OF_TEN[fractionDigits];
+        appendInteger(units / scale, out);
+        if (fractionDigits > 0) {
+            long fraction = units % scale;
+            out.append(decimalSeparator);
+            for (int i = Digits.count(fraction); i < fractionDigits; i++) {
+                out.append('0');
+            }
+            out.append(fraction);
+        }
+    }
+
+    /**
+     * Appends the magnitude of the value, grouped if a separator is configured.
+     */
+    private void appendInteger(long value, StringBuilder out) {
+        int start = out.length();
+        if (value == Long.MIN_VALUE) {
+            out.append("9223372036854775808");
+        } else {
+            out.append(Math.abs(value));
+        }
+        group(out, start);
+    }
+
+    private void group(StringBuilder out, int start) {
+        if (groupingSeparator == NO_GROUPING) {
+            return;
+        }
+        for (int i = out.length() - 3; i > start; i -= 3) {
+            out.insert(i, groupingSeparator);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.rendertemplate.format;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ValueFormat#directive}: parses placeholder directives into formats and caches them
+ * per directive and locale.
+ *
+ * <p>Directives come from template text, so the set seen by a process is normally small and
+ * fixed. The cache is still capped; past the cap directives are parsed on every call
+ * instead of evicting entries.</p>
+ */
+final class FormatDirectives {
+
+    private static final int MAX_CACHED = 1024;
+
+    // Characters of a DecimalFormat pattern; date patterns always contain a letter
+    private static final String NUMBER_PATTERN_SYMBOLS = "#0,.%‰;-¤ ";
+
+    private static final Map<Key, ValueFormat> CACHE = new ConcurrentHashMap<>();
+
+    private FormatDirectives() {}
+
+    static ValueFormat get(String directive, Locale locale) {
+        Key key = new Key(directive, locale);
+        ValueFormat format = CACHE.get(key);
+        if (format != null) {
+            return format;
+        }
+        if (CACHE.size() >= MAX_CACHED) {
+            return parse(directive, locale);
+        }
+        return CACHE.computeIfAbsent(key, k -> parse(k.directive(), k.locale()));
+    }
+
+    private static ValueFormat parse(String directive, Locale locale) {
+        try {
+            return switch (directive) {
+                case "currency" -> new LocaleNumberFormat(directive, locale, NumberFormat.getCurrencyInstance(locale));
+                case "number" -> new LocaleNumberFormat(directive, locale, NumberFormat.getNumberInstance(locale));
+                case "integer" -> new LocaleNumberFormat(directive, locale, NumberFormat.getIntegerInstance(locale));
+                case "percent" -> new LocaleNumberFormat(directive, locale, NumberFormat.getPercentInstance(locale));
+                default -> isNumberPattern(directive)
+                        ? new LocaleNumberFormat(directive, locale,
+                                new DecimalFormat(directive, DecimalFormatSymbols.getInstance(locale)))
+                        : new TemporalFormat(DateTimeFormatter.ofPattern(directive, locale));
+            };
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid format directive '%s'".formatted(directive), e);
+        }
+    }
+
+    private static boolean isNumberPattern(String directive) {
+        for (int i = 0; i < directive.length(); i++) {
+            if (NUMBER_PATTERN_SYMBOLS.indexOf(directive.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return !directive.isEmpty();
+    }
+
+    private record Key(String directive, Locale locale) {}
+}
@@ -0,0 +1,96 @@
+package com.rendertemplate.format;
+
+import java.text.FieldPosition;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A {@link NumberFormat} made safe to share between threads.
+ *
+ * <p>{@code NumberFormat} keeps mutable state, so each call borrows a private clone from a
+ * pool and returns it afterwards. The pool grows to the number of threads formatting at the
+ * same time and no further; a render on a virtual thread does not pin a clone the way a
+ * thread-local would. Values that are not numbers are written as by
+ * {@link ValueFormat#standard()}.</p>
+ */
+final class LocaleNumberFormat implements ValueFormat {
+
+    private final String directive;
+    private final Locale locale;
+    private final NumberFormat prototype;
+    private final Queue<Slot> idle = new ConcurrentLinkedQueue<>();
+
+    LocaleNumberFormat(String directive, Locale locale, NumberFormat prototype) {
+        this.directive = directive;
+        this.locale = locale;
+        this.prototype = prototype;
+    }
+
+    @Override
+    public void formatTo(Object value, StringBuilder out) {
+        if (!(value instanceof Number)) {
+            StandardFormat.INSTANCE.formatTo(value, out);
+            return;
+        }
+        Slot slot = borrow();
+        try {
+            out.append(slot.format.format(value, slot.buffer, slot.position));
+        } finally {
+            release(slot);
+        }
+    }
+
+    @Override
+    public void formatTo(long value, StringBuilder out) {
+        Slot slot = borrow();
+        try {
+            out.append(slot.format.format(value, slot.buffer, slot.position));
+        } finally {
+            release(slot);
+        }
+    }
+
+    @Override
+    public void formatTo(double value, StringBuilder out) {
+        Slot slot = borrow();
+        try {
+            out.append(slot.format.format(value, slot.buffer, slot.position));
+        } finally {
+            release(slot);
+        }
+    }
+
+    private Slot borrow() {
+        Slot slot = idle.poll();
+        return slot != null ? slot : new Slot((NumberFormat) prototype.clone());
+    }
+
+    private void release(Slot slot) {
+        slot.buffer.setLength(0);
+        idle.offer(slot);
+    }
+
+    /**
+     * The directive and locale the format was parsed from, which fully determine its output.
+     */
+    String describe() {
+        return "directive(%s,%s)".formatted(directive, locale.toLanguageTag());
+    }
+
+    @Override
+    public String toString() {
+        return "ValueFormat.directive(%s, %s)".formatted(directive, locale);
+    }
+
+    private static final class Slot {
+        final NumberFormat format;
+        final StringBuffer buffer = new StringBuffer(32);
+        final FieldPosition position = new FieldPosition(0);
+
+        Slot(NumberFormat format) {
+            this.format = format;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.rendertemplate.format;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * {@link ValueFormat#standard()}: the text of {@code String.valueOf}, written without
+ * intermediate strings for the common value types.
+ */
+final class StandardFormat implements ValueFormat {
+
+    static final StandardFormat INSTANCE = new StandardFormat();
+
+    private StandardFormat() {}
+
+    @Override
+    public void formatTo(Object value, StringBuilder out) {
+        switch (value) {
+            case String s -> out.append(s);
+            case Integer i -> out.append(i.intValue());
+            case Long l -> out.append(l.longValue());
+            case Double d -> out.append(d.doubleValue());
+            case Float f -> out.append(f.floatValue());
+            case Short s -> out.append(s.shortValue());
+            case Byte b -> out.append(b.byteValue());
+            // BigDecimal caches its string form, so repeated renders of a value do not allocate
+            case BigDecimal d -> out.append(d.toString());
+            case LocalDate d -> Digits.appendDate(d, out);
+            case Instant i -> Digits.appendInstant(i, out);
+            case null, default -> out.append(value);
+        }
+    }
+
+    @Override
+    public void formatTo(long value, StringBuilder out) {
+        out.append(value);
+    }
+
+    @Override
+    public void formatTo(double value, StringBuilder out) {
+        out.append(value);
+    }
+
+    @Override
+    public String toString() {
+        return "ValueFormat.standard()";
+    }
+}
@@ -0,0 +1,44 @@
+package com.rendertemplate.format;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * {@link ValueFormat#temporal(DateTimeFormatter)}: formats temporal values straight into the
+ * buffer with {@link DateTimeFormatter#formatTo}. Instants are written in UTC when the
+ * formatter has no zone of its own.
+ */
+record TemporalFormat(DateTimeFormatter formatter) implements ValueFormat {
+
+    @Override
+    public void formatTo(Object value, StringBuilder out) {
+        if (value instanceof Instant instant && formatter.getZone() == null) {
+            formatter.formatTo(instant.atOffset(ZoneOffset.UTC), out);
+        } else if (value instanceof TemporalAccessor temporal) {
+            formatter.formatTo(temporal, out);
+        } else {
+            StandardFormat.INSTANCE.formatTo(value, out);
+        }
+    }
+
+    /**
+     * The formatter's rules and every setting that changes its output. The formatter's own
+     * {@code toString} leaves out the locale, zone, chronology and decimal style.
+     */
+    String describe() {
+        return "temporal(%s,%s,%s,%s,%s)".formatted(formatter, formatter.getLocale().toLanguageTag(),
+                formatter.getZone(), formatter.getChronology(), formatter.getDecimalStyle());
+    }
+
+    @Override
+    public void formatTo(long value, StringBuilder out) {
+        out.append(value);
+    }
+
+    @Override
+    public void formatTo(double value, StringBuilder out) {
+        out.append(value);
+    }
+}
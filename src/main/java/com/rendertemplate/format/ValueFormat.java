@@ -0,0 +1,142 @@
+package com.rendertemplate.format;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Writes placeholder values as text into a buffer supplied by the renderer.
+ *
+ * <p>Renderers format each value into a reused {@link StringBuilder} and escape and encode it
+ * from there, so a cell costs no temporary {@code String}. Primitive values from columnar
+ * rows are passed to the {@code long} and {@code double} overloads without boxing.</p>
+ *
+ * <p>Formats are attached to placeholder keys with
+ * {@link com.rendertemplate.model.Template.Builder#format(String, ValueFormat)}; keys without
+ * one use {@link #standard()}. A placeholder can also name its format inline, as in
+ * {@code {{amount:currency}}} or {@code {{date:yyyy-MM-dd}}}; see {@link #directive}.
+ * Implementations must be safe to use from several threads.</p>
+ */
+@FunctionalInterface
+public interface ValueFormat {
+
+    /**
+     * Appends the formatted value.
+     *
+     * @param value the value, possibly null
+     * @param out   the buffer to append to
+     */
+    void formatTo(Object value, StringBuilder out);
+
+    /**
+     * Appends the formatted value. The default implementation boxes it.
+     */
+    default void formatTo(long value, StringBuilder out) {
+        formatTo(Long.valueOf(value), out);
+    }
+
+    /**
+     * Appends the formatted value. The default implementation boxes it.
+     */
+    default void formatTo(double value, StringBuilder out) {
+        formatTo(Double.valueOf(value), out);
+    }
+
+    /**
+     * Returns the format used when none is configured. Its output is the same as
+     * {@code String.valueOf(value)}, but integers, floating-point numbers, {@link LocalDate}s
+     * and {@link Instant}s are written digit by digit without building a string, and a
+     * {@link BigDecimal} reuses the string it caches.
+     */
+    static ValueFormat standard() {
+        return StandardFormat.INSTANCE;
+    }
+
+    /**
+     * Returns a format writing numbers with a fixed number of fraction digits, rounded half up,
+     * e.g. {@code 1234.5} as {@code 1234.50} for two digits. Values that are not numbers are
+     * written as by {@link #standard()}.
+     *
+     * @param fractionDigits the number of digits after the decimal point, from 0 to 18
+     * @return the format
+     */
+    static ValueFormat decimal(int fractionDigits) {
+        return new FixedDecimalFormat(fractionDigits, FixedDecimalFormat.NO_GROUPING, '.');
+    }
+
+    /**
+     * Returns a format writing numbers with a fixed number of fraction digits, rounded half up,
+     * and the integer part grouped in thousands, e.g. {@code 1234.5} as {@code 1,234.50} with
+     * {@code ','} and {@code '.'}.
+     *
+     * @param fractionDigits    the number of digits after the decimal point, from 0 to 18
+     * @param groupingSeparator the thousands separator
+     * @param decimalSeparator  the decimal separator
+     * @return the format
+     */
+    static ValueFormat decimal(int fractionDigits, char groupingSeparator, char decimalSeparator) {
+        return new FixedDecimalFormat(fractionDigits, groupingSeparator, decimalSeparator);
+    }
+
+    /**
+     * Returns a format writing dates and times with the formatter. Values that are not
+     * temporal are written as by {@link #standard()}. {@link Instant}s are written in the
+     * formatter's zone, see {@link DateTimeFormatter#withZone}, or in UTC if it has none. A
+     * temporal value lacking a field the formatter prints, such as a {@link LocalDate} under
+     * {@code HH:mm}, is an error: the format throws {@link java.time.DateTimeException}, which
+     * renderers report as a {@code RenderException} naming the placeholder.
+     *
+     * @param formatter the formatter
+     * @return the format
+     */
+    static ValueFormat temporal(DateTimeFormatter formatter) {
+        return new TemporalFormat(formatter);
+    }
+
+    /**
+     * Describes a built-in format by the settings that determine its output, e.g. for use in
+     * a cache key: two built-in formats with the same description write the same text. Other
+     * implementations, including lambdas, cannot be described and yield null.
+     *
+     * @param format the format
+     * @return the description, or null if the format is not one of the built-in formats
+     */
+    static String describe(ValueFormat format) {
+        return switch (format) {
+            case StandardFormat s -> "standard";
+            case FixedDecimalFormat f -> "decimal(%d,%d,%d)".formatted(
+                    f.fractionDigits(), (int) f.groupingSeparator(), (int) f.decimalSeparator());
+            case TemporalFormat t -> t.describe();
+            case LocaleNumberFormat n -> n.describe();
+            case null, default -> null;
+        };
+    }
+
+    /**
+     * Returns the format named by a placeholder directive, the part after the colon in
+     * {@code {{key:directive}}}. A directive is one of
+     * <ul>
+     *   <li>{@code currency}, {@code number}, {@code integer} or {@code percent}: the locale's
+     *       {@link java.text.NumberFormat} of that kind,</li>
+     *   <li>a {@link java.text.DecimalFormat} pattern made only of pattern symbols, such as
+     *       {@code #,##0.00} or {@code 0.0%}, using the locale's symbols,</li>
+     *   <li>otherwise a {@link DateTimeFormatter} pattern such as {@code yyyy-MM-dd}.</li>
+     * </ul>
+     * Values of the wrong kind, e.g. a string under {@code currency}, are written as by
+     * {@link #standard()}; a date or time lacking a field the pattern prints is an error, as
+     * for {@link #temporal}.
+     *
+     * <p>Formats are parsed once per directive and locale and cached; the returned format is
+     * shared by all threads rendering with it.</p>
+     *
+     * @param directive the directive
+     * @param locale    the locale whose symbols, currency and month names to use
+     * @return the format
+     * @throws IllegalArgumentException if the directive is not a valid pattern
+     */
+    static ValueFormat directive(String directive, Locale locale) {
+        return FormatDirectives.get(directive, locale);
+    }
+}
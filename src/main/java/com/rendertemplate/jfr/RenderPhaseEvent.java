@@ -0,0 +1,72 @@
+package com.rendertemplate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering one phase of a renderer's work that runs apart from the row
+ * walk: saving a PDF document, or building PDF pages and HTML/CSV row blocks on worker
+ * threads.
+ */
+@Name(RenderPhaseEvent.NAME)
+@Label("Render Phase")
+@Category("Render Template")
+@Description("A renderer phase such as document save or a row block built on a worker thread")
+@StackTrace(false)
+public final class RenderPhaseEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.rendertemplate.RenderPhase";
+
+    /** PDF document serialization, after the last section. */
+    public static final String SAVE = "save";
+    /** One PDF page built on the page executor. */
+    public static final String PAGE_BUILD = "page-build";
+    /** One block of HTML or CSV rows rendered on the fork/join pool. */
+    public static final String ROW_BLOCK = "row-block";
+
+    @Label("Template")
+    String templateName;
+
+    @Label("Format")
+    String format;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Rows")
+    @Description("Rows handled by the phase, or 0 if it does not handle rows")
+    long rowCount;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Creates the event and starts its timing.
+     */
+    public static RenderPhaseEvent start() {
+        RenderPhaseEvent event = new RenderPhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stops the timing and commits the event if it is enabled and passes the recording's
+     * duration threshold.
+     */
+    public void complete(String templateName, String format, String phase, long rowCount, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.templateName = templateName;
+            this.format = format;
+            this.phase = phase;
+            this.rowCount = rowCount;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
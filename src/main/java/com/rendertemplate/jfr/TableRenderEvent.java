@@ -0,0 +1,77 @@
+package com.rendertemplate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event covering one table section of a walk, with its time split between
+ * pulling rows from the source, resolving placeholders, and the renderers' output work:
+ * escaping and encoding for the text formats, layout for PDF.
+ *
+ * <p>The split costs three clock reads per row, so the walker only measures it while the
+ * event is enabled.</p>
+ */
+@Name(TableRenderEvent.NAME)
+@Label("Table Render")
+@Category("Render Template")
+@Description("Rows of one table section extracted, resolved and written by every pass of a walk")
+@StackTrace(false)
+public final class TableRenderEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.rendertemplate.TableRender";
+
+    /**
+     * Creates the event and starts its timing.
+     */
+    public static TableRenderEvent start() {
+        TableRenderEvent event = new TableRenderEvent();
+        event.begin();
+        return event;
+    }
+
+    @Label("Template")
+    String templateName;
+
+    @Label("Columns")
+    int columnCount;
+
+    @Label("Rows")
+    long rowCount;
+
+    @Label("Row Extraction")
+    @Description("Time spent pulling rows from the row source")
+    @Timespan
+    long extractionTime;
+
+    @Label("Placeholder Resolution")
+    @Description("Time spent binding cell placeholders to row values")
+    @Timespan
+    long resolutionTime;
+
+    @Label("Output")
+    @Description("Time spent in the render passes: escaping, encoding and layout")
+    @Timespan
+    long outputTime;
+
+    /**
+     * Stops the timing and commits the event if it passes the recording's duration threshold.
+     * Callers check {@link #isEnabled()} before measuring the phase split.
+     */
+    public void complete(String templateName, int columnCount, long rowCount,
+                         long extractionTime, long resolutionTime, long outputTime) {
+        end();
+        if (shouldCommit()) {
+            this.templateName = templateName;
+            this.columnCount = columnCount;
+            this.rowCount = rowCount;
+            this.extractionTime = extractionTime;
+            this.resolutionTime = resolutionTime;
+            this.outputTime = outputTime;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.rendertemplate.jfr;
+
+import com.rendertemplate.model.Template;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering one render requested through {@code TemplateService}, from
+ * the call to the finished output. The phases of the render appear as nested
+ * {@link TableRenderEvent} and {@link RenderPhaseEvent} events on the same thread.
+ *
+ * <p>When the event is not enabled in the running recording, {@link #complete} does nothing
+ * beyond a flag check.</p>
+ */
+@Name(TemplateRenderEvent.NAME)
+@Label("Template Render")
+@Category("Render Template")
+@Description("A template rendered to one or more output formats")
+@StackTrace(false)
+public final class TemplateRenderEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.rendertemplate.TemplateRender";
+
+    @Label("Template")
+    String templateName;
+
+    @Label("Format")
+    @Description("Output format, or a comma-separated list for a multi-format render")
+    String format;
+
+    @Label("Sections")
+    int sectionCount;
+
+    @Label("Rows")
+    @Description("Table rows rendered, or -1 if unknown")
+    long rowCount;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Success")
+    boolean success;
+
+    /**
+     * Creates the event and starts its timing.
+     */
+    public static TemplateRenderEvent start() {
+        TemplateRenderEvent event = new TemplateRenderEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stops the timing and commits the event if it is enabled and passes the recording's
+     * duration threshold.
+     *
+     * @param template the rendered template
+     * @param format   the output format, or formats
+     * @param rows     the number of table rows rendered, or -1 if unknown
+     * @param bytes    the output size, or 0 if the render failed
+     * @param error    the exception the render failed with, or null on success
+     */
+    public void complete(Template template, String format, long rows, long bytes, Throwable error) {
+        end();
+        if (shouldCommit()) {
+            this.templateName = template.getName();
+            this.format = format;
+            this.sectionCount = template.getSections().size();
+            this.rowCount = rows;
+            this.bytes = bytes;
+            this.success = error == null;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.rendertemplate.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention-free latency histogram with power-of-two buckets.
+ *
+ * <p>Bucket {@code i} counts durations up to {@link #upperBoundNanos(int) 2^(i+10)} ns, from
+ * about 1 µs up to about 4.5 minutes; the last bucket also takes anything longer. Recording is a
+ * single {@link LongAdder} increment, so many threads can record at once without contending.
+ * Percentiles are resolved to the bucket bound, i.e. within a factor of two.</p>
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Number of buckets.
+     */
+    public static final int BUCKETS = 30;
+
+    private static final int FIRST_BUCKET_SHIFT = 10;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration.
+     */
+    public void record(long nanos) {
+        counts[bucketOf(nanos)].increment();
+    }
+
+    /**
+     * Returns the current bucket counts.
+     */
+    public LatencySnapshot snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+        }
+        return new LatencySnapshot(snapshot);
+    }
+
+    /**
+     * Returns the largest duration, in nanoseconds, counted by the bucket.
+     */
+    public static long upperBoundNanos(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << (bucket + FIRST_BUCKET_SHIFT);
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos <= 1L << FIRST_BUCKET_SHIFT) {
+            return 0;
+        }
+        // Smallest i with nanos <= 2^(i + FIRST_BUCKET_SHIFT)
+        int bucket = 64 - Long.numberOfLeadingZeros(nanos - 1) - FIRST_BUCKET_SHIFT;
+        return Math.min(bucket, BUCKETS - 1);
+    }
+}
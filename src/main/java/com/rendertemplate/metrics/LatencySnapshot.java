@@ -0,0 +1,68 @@
+package com.rendertemplate.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Point-in-time bucket counts of a {@link LatencyHistogram}.
+ *
+ * @param counts the number of durations in each bucket
+ */
+public record LatencySnapshot(long[] counts) {
+
+    public LatencySnapshot {
+        counts = counts.clone();
+    }
+
+    @Override
+    public long[] counts() {
+        return counts.clone();
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     */
+    public long count() {
+        return Arrays.stream(counts).sum();
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile, or 0 if nothing
+     * was recorded.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the percentile latency in nanoseconds, rounded up to its bucket bound
+     */
+    public long percentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return LatencyHistogram.upperBoundNanos(i);
+            }
+        }
+        return LatencyHistogram.upperBoundNanos(counts.length - 1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LatencySnapshot other && Arrays.equals(counts, other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot[count=%d, p50=%dns, p99=%dns]".formatted(count(), percentileNanos(50), percentileNanos(99));
+    }
+}
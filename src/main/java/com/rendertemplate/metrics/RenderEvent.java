@@ -0,0 +1,26 @@
+package com.rendertemplate.metrics;
+
+import com.rendertemplate.model.RenderFormat;
+
+/**
+ * Outcome of one render, as reported to a {@link RenderListener}.
+ *
+ * @param templateName  name of the rendered template
+ * @param format        output format
+ * @param durationNanos wall-clock time the render took
+ * @param bytes         output size in bytes, or 0 if the render failed
+ * @param rows          number of table rows rendered, or -1 if unknown
+ * @param error         the exception the render failed with, or null on success
+ */
+public record RenderEvent(
+        String templateName,
+        RenderFormat format,
+        long durationNanos,
+        long bytes,
+        long rows,
+        Throwable error
+) {
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
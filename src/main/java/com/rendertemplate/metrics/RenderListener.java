@@ -0,0 +1,29 @@
+package com.rendertemplate.metrics;
+
+/**
+ * Receives an event for every render performed by a
+ * {@link com.rendertemplate.TemplateService}, successful or not.
+ *
+ * <p>Listeners are called on the rendering thread, possibly from many threads at once, and
+ * should return quickly. Implement this interface to bridge renders to an external monitoring
+ * system; {@link RenderMetrics} keeps the statistics in memory.</p>
+ *
+ * <p>An exception thrown by a listener does not change the render's outcome: after a
+ * successful render it is logged, and after a failed render it is added as suppressed to the
+ * render's exception.</p>
+ */
+@FunctionalInterface
+public interface RenderListener {
+
+    void onRender(RenderEvent event);
+
+    /**
+     * Returns a listener that notifies this listener, then {@code next}.
+     */
+    default RenderListener andThen(RenderListener next) {
+        return event -> {
+            onRender(event);
+            next.onRender(event);
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.rendertemplate.metrics;
+
+import com.rendertemplate.model.RenderFormat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link RenderListener} that keeps render count, error count, output bytes, row
+ * count and a latency histogram per output format and template name.
+ *
+ * <p>All counters are {@link LongAdder}s, so recording from many threads does not contend.
+ * To keep memory bounded when template names are generated, at most {@code maxTemplates}
+ * format/template pairs are tracked individually; further ones are pooled under
+ * {@link #OTHER_TEMPLATES}.</p>
+ */
+public final class RenderMetrics implements RenderListener {
+
+    /**
+     * Template name under which renders beyond the tracked limit are counted.
+     */
+    public static final String OTHER_TEMPLATES = "(other)";
+
+    static final int DEFAULT_MAX_TEMPLATES = 1000;
+
+    private final ConcurrentHashMap<Key, Counters> counters = new ConcurrentHashMap<>();
+    private final int maxTemplates;
+
+    public RenderMetrics() {
+        this(DEFAULT_MAX_TEMPLATES);
+    }
+
+    /**
+     * @param maxTemplates the number of format/template pairs tracked individually
+     */
+    public RenderMetrics(int maxTemplates) {
+        if (maxTemplates < 1) {
+            throw new IllegalArgumentException("Max templates must be positive: " + maxTemplates);
+        }
+        this.maxTemplates = maxTemplates;
+    }
+
+    @Override
+    public void onRender(RenderEvent event) {
+        Counters c = countersFor(event.format(), event.templateName());
+        c.count.increment();
+        c.latency.record(event.durationNanos());
+        if (!event.isSuccess()) {
+            c.errors.increment();
+            return;
+        }
+        c.bytes.add(event.bytes());
+        if (event.rows() > 0) {
+            c.rows.add(event.rows());
+        }
+    }
+
+    /**
+     * Returns the statistics of every tracked format/template pair, ordered by format and
+     * template name.
+     */
+    public List<RenderStats> snapshot() {
+        List<RenderStats> stats = new ArrayList<>(counters.size());
+        counters.forEach((key, c) -> stats.add(c.snapshot(key)));
+        stats.sort(Comparator.comparing(RenderStats::format).thenComparing(RenderStats::templateName));
+        return stats;
+    }
+
+    /**
+     * Returns the statistics of one template in one format, or null if it has not been rendered.
+     */
+    public RenderStats snapshot(RenderFormat format, String templateName) {
+        Key key = new Key(format, templateName);
+        Counters c = counters.get(key);
+        return c == null ? null : c.snapshot(key);
+    }
+
+    /**
+     * Discards all statistics.
+     */
+    public void reset() {
+        counters.clear();
+    }
+
+    private Counters countersFor(RenderFormat format, String templateName) {
+        Key key = new Key(format, templateName);
+        Counters c = counters.get(key);
+        if (c != null) {
+            return c;
+        }
+        if (counters.size() >= maxTemplates) {
+            key = new Key(format, OTHER_TEMPLATES);
+        }
+        return counters.computeIfAbsent(key, k -> new Counters());
+    }
+
+    private record Key(RenderFormat format, String templateName) {}
+
+    private static final class Counters {
+
+        final LongAdder count = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        RenderStats snapshot(Key key) {
+            return new RenderStats(key.format(), key.templateName(), count.sum(), errors.sum(),
+                    bytes.sum(), rows.sum(), latency.snapshot());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.rendertemplate.metrics;
+
+import com.rendertemplate.model.RenderFormat;
+
+/**
+ * Point-in-time statistics of the renders of one template in one format.
+ *
+ * @param format       output format
+ * @param templateName template name, or {@link RenderMetrics#OTHER_TEMPLATES} for templates
+ *                     beyond the tracked limit
+ * @param count        renders, including failed ones
+ * @param errors       failed renders
+ * @param bytes        total output bytes of successful renders
+ * @param rows         total table rows of successful renders whose row count is known
+ * @param latency      render latency distribution
+ */
+public record RenderStats(
+        RenderFormat format,
+        String templateName,
+        long count,
+        long errors,
+        long bytes,
+        long rows,
+        LatencySnapshot latency
+) {
+    /**
+     * Returns the fraction of renders that failed, or 0 if there were none.
+     */
+    public double errorRate() {
+        return count == 0 ? 0.0 : (double) errors / count;
+    }
+}
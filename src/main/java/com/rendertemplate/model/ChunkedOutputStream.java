@@ -0,0 +1,106 @@
+package com.rendertemplate.model;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Output stream that collects written bytes in fixed-size chunks and hands them over as
+ * {@link RenderContent} without copying.
+ *
+ * <p>Unlike {@code ByteArrayOutputStream}, the buffer is never regrown and copied, and the
+ * chunks stay small enough to be ordinary young-generation allocations rather than huge
+ * contiguous arrays. Instances are not thread-safe.</p>
+ */
+public final class ChunkedOutputStream extends OutputStream {
+
+    /**
+     * Default chunk size, well below the G1 humongous object threshold for any region size.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+
+    private static final int FIRST_CHUNK_SIZE = 8192;
+
+    private final int chunkSize;
+    private final int firstChunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private byte[] current;
+    private int position;
+    private boolean built;
+
+    public ChunkedOutputStream() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize the maximum chunk size in bytes
+     */
+    public ChunkedOutputStream(int chunkSize) {
+        this(chunkSize, 0);
+    }
+
+    /**
+     * Creates a stream whose first chunk is sized for the expected output, so that an output
+     * no larger than a chunk is written into a single exactly-sized array.
+     *
+     * @param chunkSize    the maximum chunk size in bytes
+     * @param expectedSize the expected output size in bytes, or 0 if unknown
+     */
+    public ChunkedOutputStream(int chunkSize, long expectedSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.firstChunkSize = expectedSize > 0
+                ? (int) Math.min(chunkSize, expectedSize + expectedSize / 8)
+                : Math.min(FIRST_CHUNK_SIZE, chunkSize);
+    }
+
+    @Override
+    public void write(int b) {
+        ensureWritable();
+        current[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        while (len > 0) {
+            ensureWritable();
+            int n = Math.min(len, current.length - position);
+            System.arraycopy(b, off, current, position, n);
+            position += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Returns the bytes written so far as content. The stream cannot be written to afterwards.
+     */
+    public RenderContent toContent() {
+        if (current != null) {
+            chunks.add(ByteBuffer.wrap(current, 0, position));
+            current = null;
+        }
+        built = true;
+        return RenderContent.of(chunks);
+    }
+
+    private void ensureWritable() {
+        if (built) {
+            throw new IllegalStateException("Content has already been built");
+        }
+        if (current == null) {
+            // Small outputs stay small; later chunks use the full size
+            current = new byte[chunks.isEmpty() ? firstChunkSize : chunkSize];
+            position = 0;
+        } else if (position == current.length) {
+            chunks.add(ByteBuffer.wrap(current));
+            current = new byte[chunkSize];
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.rendertemplate.model;
+
+import java.math.BigInteger;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Table rows stored column by column in primitive arrays. Each column of the {@link RowSchema}
+ * is an {@code int[]}, {@code long[]} or {@code double[]}, or for strings an {@code int[]} of
+ * codes into a dictionary of the column's distinct values. A cell costs 4 or 8 bytes instead
+ * of a boxed value in a hash map entry, and repeated strings are stored once.
+ *
+ * <p>The renderers read cells straight from the columns by index. Iterating the source as a
+ * {@link RowSource} is also supported and yields a read-only map view per row, boxing values
+ * as they are read.</p>
+ *
+ * <p>Instances are immutable and can be iterated and rendered any number of times, from
+ * several threads at once.</p>
+ *
+ * <pre>{@code
+ * ColumnarRows rows = ColumnarRows.builder()
+ *         .stringColumn("product").intColumn("quantity").doubleColumn("price")
+ *         .addRow("Widget", 3, 9.99)
+ *         .appendString("Gadget").appendInt(1).appendDouble(24.5)
+ *         .build();
+ * }</pre>
+ */
+public final class ColumnarRows implements RowSource {
+
+    /**
+     * Storage type of a column.
+     */
+    public enum ColumnType { INT, LONG, DOUBLE, STRING }
+
+    private final RowSchema schema;
+    private final ColumnType[] types;
+    private final Object[] columns;
+    private final String[][] dictionaries;
+    private final int size;
+
+    private ColumnarRows(RowSchema schema, ColumnType[] types, Object[] columns, String[][] dictionaries, int size) {
+        this.schema = schema;
+        this.types = types;
+        this.columns = columns;
+        this.dictionaries = dictionaries;
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public RowSchema schema() {
+        return schema;
+    }
+
+    /**
+     * Returns the number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    public ColumnType columnType(int column) {
+        return types[column];
+    }
+
+    /**
+     * Returns the value of an {@code INT} column.
+     *
+     * @throws IllegalArgumentException if the column has another type
+     */
+    public int getInt(int column, int row) {
+        return ((int[]) column(column, ColumnType.INT))[row];
+    }
+
+    /**
+     * Returns the value of a {@code LONG} column.
+     *
+     * @throws IllegalArgumentException if the column has another type
+     */
+    public long getLong(int column, int row) {
+        return ((long[]) column(column, ColumnType.LONG))[row];
+    }
+
+    /**
+     * Returns the value of a {@code DOUBLE} column.
+     *
+     * @throws IllegalArgumentException if the column has another type
+     */
+    public double getDouble(int column, int row) {
+        return ((double[]) column(column, ColumnType.DOUBLE))[row];
+    }
+
+    /**
+     * Returns the value of a {@code STRING} column. The instance is shared by every row
+     * holding the same value.
+     *
+     * @throws IllegalArgumentException if the column has another type
+     */
+    public String getString(int column, int row) {
+        return dictionaries[column][((int[]) column(column, ColumnType.STRING))[row]];
+    }
+
+    /**
+     * Returns the number of distinct values in a {@code STRING} column.
+     *
+     * @throws IllegalArgumentException if the column has another type
+     */
+    public int dictionarySize(int column) {
+        column(column, ColumnType.STRING);
+        return dictionaries[column].length;
+    }
+
+    /**
+     * Returns the value of any column, boxed.
+     */
+    public Object getValue(int column, int row) {
+        return switch (types[column]) {
+            case INT -> getInt(column, row);
+            case LONG -> getLong(column, row);
+            case DOUBLE -> getDouble(column, row);
+            case STRING -> getString(column, row);
+        };
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> iterator() {
+        return new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < size;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (row >= size) {
+                    throw new NoSuchElementException();
+                }
+                return new RowView(row++);
+            }
+        };
+    }
+
+    private Object column(int column, ColumnType type) {
+        if (types[column] != type) {
+            throw new IllegalArgumentException(
+                    "Column '%s' is %s, not %s".formatted(schema.names().get(column), types[column], type));
+        }
+        return columns[column];
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarRows{schema=%s, rows=%d}".formatted(schema.names(), size);
+    }
+
+    /**
+     * Read-only map view of one row.
+     */
+    private final class RowView extends AbstractMap<String, Object> {
+
+        private final int row;
+
+        RowView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int column = key instanceof String name ? schema.indexOf(name) : -1;
+            return column < 0 ? null : getValue(column, row);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String name && schema.indexOf(name) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return types.length;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int column;
+
+                        @Override
+                        public boolean hasNext() {
+                            return column < types.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (column >= types.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int c = column++;
+                            return new SimpleImmutableEntry<>(schema.names().get(c), getValue(c, row));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return types.length;
+                }
+            };
+        }
+    }
+
+    /**
+     * Builds a columnar row set. Columns are declared first; rows are then added either whole
+     * with {@link #addRow(Object...)} or one value at a time, in column order, with the typed
+     * {@code append} methods, which do not box.
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        private final List<String> names = new ArrayList<>();
+        private final List<ColumnType> columnTypes = new ArrayList<>();
+
+        private ColumnType[] types;
+        private Object[] columns;
+        private List<Map<String, Integer>> codes;
+        private List<List<String>> dictionaries;
+        private int capacity;
+        private int rows;
+        private int nextColumn;
+
+        private Builder() {}
+
+        public Builder intColumn(String name) {
+            return column(name, ColumnType.INT);
+        }
+
+        public Builder longColumn(String name) {
+            return column(name, ColumnType.LONG);
+        }
+
+        public Builder doubleColumn(String name) {
+            return column(name, ColumnType.DOUBLE);
+        }
+
+        public Builder stringColumn(String name) {
+            return column(name, ColumnType.STRING);
+        }
+
+        /**
+         * Adds a row. {@code INT} and {@code LONG} columns take integral numbers ({@code Byte},
+         * {@code Short}, {@code Integer}, {@code Long}, {@code BigInteger}) within their range,
+         * {@code DOUBLE} columns any {@link Number}. String columns take any value and store its
+         * {@code String.valueOf}, with null stored as the empty string.
+         *
+         * @param values one value per column, in column order
+         * @return this builder
+         * @throws IllegalArgumentException if the number of values does not match the columns,
+         *                                  or a column is given a value it cannot hold exactly
+         * @throws IllegalStateException    if a row was partly appended
+         */
+        public Builder addRow(Object... values) {
+            if (types != null && nextColumn != 0) {
+                throw new IllegalStateException("Row " + rows + " is only partly appended");
+            }
+            if (values.length != columnTypes.size()) {
+                throw new IllegalArgumentException(
+                        "Expected %d values, got %d".formatted(columnTypes.size(), values.length));
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (!holds(columnTypes.get(i), values[i])) {
+                    throw new IllegalArgumentException("Column '%s' is %s and cannot hold %s"
+                            .formatted(names.get(i), columnTypes.get(i), values[i]));
+                }
+            }
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                switch (columnTypes.get(i)) {
+                    case INT -> appendInt(((Number) value).intValue());
+                    case LONG -> appendLong(((Number) value).longValue());
+                    case DOUBLE -> appendDouble(((Number) value).doubleValue());
+                    case STRING -> appendString(value == null ? null : String.valueOf(value));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Sets the next value of the current row, which must belong to an {@code INT} column.
+         */
+        public Builder appendInt(int value) {
+            int column = next(ColumnType.INT);
+            ((int[]) columns[column])[rows] = value;
+            return advance();
+        }
+
+        /**
+         * Sets the next value of the current row, which must belong to a {@code LONG} column.
+         */
+        public Builder appendLong(long value) {
+            int column = next(ColumnType.LONG);
+            ((long[]) columns[column])[rows] = value;
+            return advance();
+        }
+
+        /**
+         * Sets the next value of the current row, which must belong to a {@code DOUBLE} column.
+         */
+        public Builder appendDouble(double value) {
+            int column = next(ColumnType.DOUBLE);
+            ((double[]) columns[column])[rows] = value;
+            return advance();
+        }
+
+        /**
+         * Sets the next value of the current row, which must belong to a {@code STRING} column.
+         * Null is stored as the empty string.
+         */
+        public Builder appendString(String value) {
+            int column = next(ColumnType.STRING);
+            String text = value == null ? "" : value;
+            List<String> dictionary = dictionaries.get(column);
+            Integer code = codes.get(column).computeIfAbsent(text, v -> {
+                dictionary.add(v);
+                return dictionary.size() - 1;
+            });
+            ((int[]) columns[column])[rows] = code;
+            return advance();
+        }
+
+        /**
+         * Creates the row set, trimming each column to the number of rows.
+         *
+         * @throws IllegalStateException if there are no columns or a row was partly appended
+         */
+        public ColumnarRows build() {
+            if (columnTypes.isEmpty()) {
+                throw new IllegalStateException("At least one column is required");
+            }
+            if (types == null) {
+                freeze();
+            }
+            if (nextColumn != 0) {
+                throw new IllegalStateException("Row " + rows + " is only partly appended");
+            }
+            Object[] trimmed = new Object[types.length];
+            String[][] dictionaryArrays = new String[types.length][];
+            for (int i = 0; i < types.length; i++) {
+                trimmed[i] = resize(columns[i], types[i], rows);
+                if (types[i] == ColumnType.STRING) {
+                    dictionaryArrays[i] = dictionaries.get(i).toArray(String[]::new);
+                }
+            }
+            return new ColumnarRows(RowSchema.of(names), types, trimmed, dictionaryArrays, rows);
+        }
+
+        private Builder column(String name, ColumnType type) {
+            if (types != null) {
+                throw new IllegalStateException("Columns must be declared before any row is added");
+            }
+            if (names.contains(name)) {
+                throw new IllegalArgumentException("Duplicate column name: " + name);
+            }
+            names.add(name);
+            columnTypes.add(type);
+            return this;
+        }
+
+        private int next(ColumnType type) {
+            if (types == null) {
+                if (columnTypes.isEmpty()) {
+                    throw new IllegalStateException("At least one column is required");
+                }
+                freeze();
+            }
+            if (types[nextColumn] != type) {
+                throw new IllegalArgumentException("Column '%s' is %s, not %s"
+                        .formatted(names.get(nextColumn), types[nextColumn], type));
+            }
+            if (nextColumn == 0 && rows == capacity) {
+                capacity = capacity * 2;
+                for (int i = 0; i < types.length; i++) {
+                    columns[i] = resize(columns[i], types[i], capacity);
+                }
+            }
+            return nextColumn;
+        }
+
+        private Builder advance() {
+            if (++nextColumn == types.length) {
+                nextColumn = 0;
+                rows++;
+            }
+            return this;
+        }
+
+        private void freeze() {
+            types = columnTypes.toArray(ColumnType[]::new);
+            columns = new Object[types.length];
+            codes = new ArrayList<>(types.length);
+            dictionaries = new ArrayList<>(types.length);
+            capacity = INITIAL_CAPACITY;
+            for (int i = 0; i < types.length; i++) {
+                columns[i] = switch (types[i]) {
+                    case INT, STRING -> new int[capacity];
+                    case LONG -> new long[capacity];
+                    case DOUBLE -> new double[capacity];
+                };
+                boolean strings = types[i] == ColumnType.STRING;
+                codes.add(strings ? new HashMap<>() : null);
+                dictionaries.add(strings ? new ArrayList<>() : null);
+            }
+        }
+
+        /**
+         * Returns true if the column type can store the value without losing information.
+         */
+        private static boolean holds(ColumnType type, Object value) {
+            return switch (type) {
+                case STRING -> true;
+                case DOUBLE -> value instanceof Number;
+                case INT -> value instanceof BigInteger big
+                        ? big.bitLength() < Integer.SIZE
+                        : isIntegral(value) && ((Number) value).longValue() == ((Number) value).intValue();
+                case LONG -> value instanceof BigInteger big ? big.bitLength() < Long.SIZE : isIntegral(value);
+            };
+        }
+
+        private static boolean isIntegral(Object value) {
+            return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+        }
+
+        private static Object resize(Object column, ColumnType type, int length) {
+            return switch (type) {
+                case INT, STRING -> Arrays.copyOf((int[]) column, length);
+                case LONG -> Arrays.copyOf((long[]) column, length);
+                case DOUBLE -> Arrays.copyOf((double[]) column, length);
+            };
+        }
+    }
+}
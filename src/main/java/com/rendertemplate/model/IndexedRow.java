@@ -0,0 +1,110 @@
+package com.rendertemplate.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A table row stored as an array of values in the slot order of a shared {@link RowSchema}.
+ * Rows of one table share the schema, so each row costs one array instead of a hash map with
+ * an entry per key. Renderers look up each placeholder's slot once per table and then read
+ * values by index.
+ *
+ * <p>The row is also a read-only {@code Map} keyed by column name, so it can be used anywhere
+ * map rows are accepted, e.g. in a {@code "rows"} data list or a {@link RowSource}. A null
+ * value means the key is absent from the map, and resolves to an empty string like a missing
+ * key.</p>
+ *
+ * <pre>{@code
+ * RowSchema schema = RowSchema.of("name", "qty");
+ * List<IndexedRow> rows = List.of(schema.row("Widget", 3), schema.row("Gadget", 1));
+ * }</pre>
+ */
+public final class IndexedRow extends AbstractMap<String, Object> {
+
+    private final RowSchema schema;
+    private final Object[] values;
+
+    IndexedRow(RowSchema schema, Object[] values) {
+        if (values.length != schema.size()) {
+            throw new IllegalArgumentException(
+                    "Expected %d values for %s, got %d".formatted(schema.size(), schema, values.length));
+        }
+        this.schema = schema;
+        this.values = values;
+    }
+
+    public RowSchema schema() {
+        return schema;
+    }
+
+    /**
+     * Returns the value in the given slot, or null if there is none.
+     */
+    public Object get(int slot) {
+        return values[slot];
+    }
+
+    @Override
+    public Object get(Object key) {
+        int slot = key instanceof String name ? schema.indexOf(name) : -1;
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Object value : values) {
+            if (value != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private int slot = skipNulls(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return slot < values.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (slot >= values.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, Object> entry = new SimpleImmutableEntry<>(schema.names().get(slot), values[slot]);
+                        slot = skipNulls(slot + 1);
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return IndexedRow.this.size();
+            }
+        };
+    }
+
+    private int skipNulls(int slot) {
+        while (slot < values.length && values[slot] == null) {
+            slot++;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,231 @@
+package com.rendertemplate.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable rendered bytes, held as a sequence of chunks.
+ *
+ * <p>Renderers write their output in fixed-size chunks (see {@link ChunkedOutputStream}), so a
+ * large document never needs one contiguous array and is never copied to assemble it. The
+ * content can be streamed to a channel or stream, read as an {@link InputStream}, or decoded
+ * lazily as UTF-8 through {@link #asReader()}. {@link #toByteArray()} copies the chunks into a
+ * single array and is meant for small outputs and compatibility.</p>
+ */
+public final class RenderContent {
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    // Kept writable so the backing arrays can be read directly; only read-only views leave
+    private final ByteBuffer[] chunks;
+    private final boolean wrapsArray;
+    private final long size;
+
+    private RenderContent(ByteBuffer[] chunks, boolean wrapsArray) {
+        long total = 0;
+        for (ByteBuffer chunk : chunks) {
+            total += chunk.remaining();
+        }
+        this.chunks = chunks;
+        this.wrapsArray = wrapsArray;
+        this.size = total;
+    }
+
+    /**
+     * Wraps an array without copying it. The array must not be modified afterwards.
+     *
+     * @param bytes the content
+     * @return the content
+     */
+    public static RenderContent of(byte[] bytes) {
+        Objects.requireNonNull(bytes, "bytes must not be null");
+        return new RenderContent(new ByteBuffer[]{ByteBuffer.wrap(bytes)}, true);
+    }
+
+    /**
+     * Wraps the remaining bytes of each buffer, in order, without copying them. The buffers
+     * must not be modified afterwards.
+     *
+     * @param chunks the content chunks
+     * @return the content
+     */
+    public static RenderContent of(List<ByteBuffer> chunks) {
+        ByteBuffer[] views = new ByteBuffer[chunks.size()];
+        for (int i = 0; i < views.length; i++) {
+            views[i] = chunks.get(i).duplicate();
+        }
+        return new RenderContent(views, false);
+    }
+
+    /**
+     * Returns the total number of bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns read-only views of the chunks, in order.
+     */
+    public List<ByteBuffer> chunks() {
+        List<ByteBuffer> views = new ArrayList<>(chunks.length);
+        for (ByteBuffer chunk : chunks) {
+            views.add(chunk.asReadOnlyBuffer());
+        }
+        return views;
+    }
+
+    /**
+     * Returns the content as a single array. Content wrapped from an array by
+     * {@link #of(byte[])} is returned as is; otherwise the chunks are copied.
+     *
+     * @throws IllegalStateException if the content is too large for an array
+     */
+    public byte[] toByteArray() {
+        if (wrapsArray) {
+            return chunks[0].array();
+        }
+        if (size > MAX_ARRAY_SIZE) {
+            throw new IllegalStateException("Content of " + size + " bytes does not fit in an array");
+        }
+        byte[] bytes = new byte[(int) size];
+        int offset = 0;
+        for (ByteBuffer chunk : chunks) {
+            int length = chunk.remaining();
+            chunk.duplicate().get(bytes, offset, length);
+            offset += length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the content to the channel. The channel is not closed.
+     *
+     * @param channel the channel to write to
+     * @return the number of bytes written
+     * @throws IOException if writing fails
+     */
+    public long transferTo(WritableByteChannel channel) throws IOException {
+        for (ByteBuffer chunk : chunks) {
+            ByteBuffer view = chunk.asReadOnlyBuffer();
+            while (view.hasRemaining()) {
+                channel.write(view);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Writes the content to the stream. The stream is neither flushed nor closed.
+     *
+     * @param out the stream to write to
+     * @return the number of bytes written
+     * @throws IOException if writing fails
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        byte[] copyBuffer = null;
+        for (ByteBuffer chunk : chunks) {
+            if (chunk.hasArray()) {
+                out.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+            } else {
+                ByteBuffer view = chunk.duplicate();
+                if (copyBuffer == null) {
+                    copyBuffer = new byte[8192];
+                }
+                while (view.hasRemaining()) {
+                    int length = Math.min(copyBuffer.length, view.remaining());
+                    view.get(copyBuffer, 0, length);
+                    out.write(copyBuffer, 0, length);
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns a stream reading the content from the start.
+     */
+    public InputStream asInputStream() {
+        return new ChunkInputStream(chunks);
+    }
+
+    /**
+     * Returns a reader decoding the content as UTF-8 as it is read.
+     */
+    public Reader asReader() {
+        return new InputStreamReader(asInputStream(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes the whole content as UTF-8.
+     */
+    public String asString() {
+        if (chunks.length == 1 && chunks[0].hasArray()) {
+            ByteBuffer chunk = chunks[0];
+            return new String(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining(),
+                    StandardCharsets.UTF_8);
+        }
+        return new String(toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "RenderContent{size=%d, chunks=%d}".formatted(size, chunks.length);
+    }
+
+    private static final class ChunkInputStream extends InputStream {
+
+        private final ByteBuffer[] chunks;
+        private int index;
+        private ByteBuffer current;
+
+        ChunkInputStream(ByteBuffer[] chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public int read() {
+            ByteBuffer chunk = nextChunk();
+            return chunk == null ? -1 : chunk.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            ByteBuffer chunk = nextChunk();
+            if (chunk == null) {
+                return -1;
+            }
+            int n = Math.min(len, chunk.remaining());
+            chunk.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return current == null ? 0 : current.remaining();
+        }
+
+        private ByteBuffer nextChunk() {
+            while (current == null || !current.hasRemaining()) {
+                if (index == chunks.length) {
+                    return null;
+                }
+                current = chunks[index++].duplicate();
+            }
+            return current;
+        }
+    }
+}
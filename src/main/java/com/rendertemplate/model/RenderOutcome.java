@@ -0,0 +1,46 @@
+package com.rendertemplate.model;
+
+/**
+ * Outcome of rendering one template of a batch: either a {@link RenderResult} or the
+ * exception that made that template fail. Failures are isolated per template, so one bad
+ * template does not fail the whole batch.
+ *
+ * @param index        position of the template in the batch input
+ * @param templateName name of the rendered template
+ * @param result       the render result, or null if rendering failed
+ * @param error        the failure, or null if rendering succeeded
+ */
+public record RenderOutcome(
+        int index,
+        String templateName,
+        RenderResult result,
+        RuntimeException error
+) {
+    public RenderOutcome {
+        if ((result == null) == (error == null)) {
+            throw new IllegalArgumentException("Exactly one of result and error must be set");
+        }
+    }
+
+    public static RenderOutcome success(int index, RenderResult result) {
+        return new RenderOutcome(index, result.templateName(), result, null);
+    }
+
+    public static RenderOutcome failure(int index, String templateName, RuntimeException error) {
+        return new RenderOutcome(index, templateName, null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Returns the render result, rethrowing the failure if rendering failed.
+     */
+    public RenderResult getOrThrow() {
+        if (error != null) {
+            throw error;
+        }
+        return result;
+    }
+}
@@ -1,15 +1,32 @@
 package com.rendertemplate.model;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
 /**
  * Contains the result of a template rendering operation.
+ *
+ * <p>The rendered bytes are held as {@link RenderContent}, which renderers fill in chunks
+ * without a final copy. Prefer {@link #transferTo(WritableByteChannel)},
+ * {@link #asInputStream()} or {@link #asReader()} for large outputs; {@link #content()}
+ * returns a single array and copies chunked content on every call.</p>
  */
-public record RenderResult(
-        byte[] content,
-        RenderFormat format,
-        String templateName
-) {
-    public RenderResult {
-        if (content == null) {
+public final class RenderResult {
+
+    private final RenderContent body;
+    private final RenderFormat format;
+    private final String templateName;
+    private final long rowCount;
+
+    public RenderResult(byte[] content, RenderFormat format, String templateName) {
+        this(content == null ? null : RenderContent.of(content), format, templateName, -1);
+    }
+
+    private RenderResult(RenderContent body, RenderFormat format, String templateName, long rowCount) {
+        if (body == null) {
             throw new IllegalArgumentException("Content cannot be null");
         }
         if (format == null) {
@@ -18,13 +35,91 @@ public record RenderResult(
         if (templateName == null || templateName.isBlank()) {
             throw new IllegalArgumentException("Template name cannot be null or blank");
         }
+        this.body = body;
+        this.format = format;
+        this.templateName = templateName;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Creates a result over rendered content without copying it.
+     */
+    public static RenderResult of(RenderContent body, RenderFormat format, String templateName) {
+        return new RenderResult(body, format, templateName, -1);
+    }
+
+    /**
+     * Creates a result over rendered content without copying it, recording how many table
+     * rows were rendered.
+     */
+    public static RenderResult of(RenderContent body, RenderFormat format, String templateName, long rowCount) {
+        return new RenderResult(body, format, templateName, rowCount);
     }
 
     /**
-     * Returns the content as a string (useful for text-based formats like HTML and CSV).
+     * Returns the content as a single array. Chunked content is copied on each call.
+     */
+    public byte[] content() {
+        return body.toByteArray();
+    }
+
+    /**
+     * Returns the rendered content.
+     */
+    public RenderContent body() {
+        return body;
+    }
+
+    public RenderFormat format() {
+        return format;
+    }
+
+    public String templateName() {
+        return templateName;
+    }
+
+    /**
+     * Returns the number of table rows rendered, or -1 if the renderer did not report it.
+     */
+    public long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the content size in bytes.
+     */
+    public long size() {
+        return body.size();
+    }
+
+    /**
+     * Writes the content to the channel without copying it. The channel is not closed.
+     *
+     * @return the number of bytes written
+     */
+    public long transferTo(WritableByteChannel channel) throws IOException {
+        return body.transferTo(channel);
+    }
+
+    /**
+     * Returns a stream reading the content.
+     */
+    public InputStream asInputStream() {
+        return body.asInputStream();
+    }
+
+    /**
+     * Returns a reader decoding the content as UTF-8 as it is read (useful for text-based formats).
+     */
+    public Reader asReader() {
+        return body.asReader();
+    }
+
+    /**
+     * Returns the content as a UTF-8 string (useful for text-based formats like HTML and CSV).
      */
     public String contentAsString() {
-        return new String(content);
+        return body.asString();
     }
 
     /**
@@ -33,4 +128,22 @@ public record RenderResult(
     public String suggestedFilename() {
         return templateName + format.getFileExtension();
     }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RenderResult other
+                && body == other.body
+                && format == other.format
+                && templateName.equals(other.templateName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(body), format, templateName);
+    }
+
+    @Override
+    public String toString() {
+        return "RenderResult[body=%s, format=%s, templateName=%s]".formatted(body, format, templateName);
+    }
 }
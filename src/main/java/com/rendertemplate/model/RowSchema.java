@@ -0,0 +1,102 @@
+package com.rendertemplate.model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed, ordered set of column names shared by the rows of a table, as {@link IndexedRow}s or
+ * {@link ColumnarRows}. Renderers look each placeholder key up once per table and then read
+ * values by index, without hashing the key for every row. Instances are immutable and safe to
+ * share between threads.
+ */
+public final class RowSchema {
+
+    private final List<String> names;
+    private final Map<String, Integer> indexes;
+
+    private RowSchema(List<String> names) {
+        this.names = names;
+        this.indexes = new HashMap<>(names.size() * 2);
+        for (int i = 0; i < names.size(); i++) {
+            if (indexes.putIfAbsent(names.get(i), i) != null) {
+                throw new IllegalArgumentException("Duplicate column name: " + names.get(i));
+            }
+        }
+    }
+
+    /**
+     * Creates a schema with the given column names, in order.
+     *
+     * @param names the column names
+     * @return the schema
+     * @throws IllegalArgumentException if a name appears more than once
+     */
+    public static RowSchema of(List<String> names) {
+        return new RowSchema(List.copyOf(names));
+    }
+
+    /**
+     * Creates a schema with the given column names, in order.
+     */
+    public static RowSchema of(String... names) {
+        return of(List.of(names));
+    }
+
+    /**
+     * Returns the column names, in order.
+     */
+    public List<String> names() {
+        return names;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Returns the index of the named column, or -1 if the schema has no such column.
+     */
+    public int indexOf(String name) {
+        Integer index = indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the index of each named column, with -1 for names the schema does not have.
+     */
+    public int[] indexesOf(String[] names) {
+        int[] result = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            result[i] = indexOf(names[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a row of this schema. The values are given in column order and the array is
+     * kept as the row's storage, not copied.
+     *
+     * @param values one value per column; null for a missing value
+     * @return the row
+     * @throws IllegalArgumentException if the number of values does not match the columns
+     */
+    public IndexedRow row(Object... values) {
+        return new IndexedRow(this, values);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RowSchema other && names.equals(other.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return names.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "RowSchema" + names;
+    }
+}
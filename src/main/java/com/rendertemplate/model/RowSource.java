@@ -0,0 +1,70 @@
+package com.rendertemplate.model;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Supplies the rows rendered by {@code Table} sections. Renderers pull rows one at a time
+ * through {@link #iterator()}, so a source backed by a cursor, a file or a generated stream
+ * never has to hold the whole dataset in memory.
+ *
+ * <p>Sources created by {@link #of(Iterable)} and {@link #fromStream(Supplier)} can be
+ * iterated any number of times. Sources created by the {@code once} factories wrap a
+ * single-use iterator or stream and throw {@link IllegalStateException} when iterated a
+ * second time, e.g. when a template is rendered twice or contains several tables.</p>
+ */
+@FunctionalInterface
+public interface RowSource extends Iterable<Map<String, Object>> {
+
+    /**
+     * Creates a reusable source over an existing collection of rows.
+     *
+     * @param rows the rows
+     * @return the row source
+     */
+    @SuppressWarnings("unchecked")
+    static RowSource of(Iterable<? extends Map<String, Object>> rows) {
+        return () -> (Iterator<Map<String, Object>>) rows.iterator();
+    }
+
+    /**
+     * Creates a reusable source that opens a new stream each time it is iterated.
+     *
+     * @param rows supplier of a fresh row stream
+     * @return the row source
+     */
+    @SuppressWarnings("unchecked")
+    static RowSource fromStream(Supplier<? extends Stream<? extends Map<String, Object>>> rows) {
+        return () -> (Iterator<Map<String, Object>>) rows.get().iterator();
+    }
+
+    /**
+     * Creates a single-use source over an iterator.
+     *
+     * @param rows the row iterator
+     * @return the row source
+     */
+    @SuppressWarnings("unchecked")
+    static RowSource once(Iterator<? extends Map<String, Object>> rows) {
+        AtomicBoolean consumed = new AtomicBoolean();
+        return () -> {
+            if (consumed.getAndSet(true)) {
+                throw new IllegalStateException("Row source has already been consumed");
+            }
+            return (Iterator<Map<String, Object>>) rows;
+        };
+    }
+
+    /**
+     * Creates a single-use source over a stream.
+     *
+     * @param rows the row stream
+     * @return the row source
+     */
+    static RowSource once(Stream<? extends Map<String, Object>> rows) {
+        return once(rows.iterator());
+    }
+}
@@ -1,10 +1,16 @@
 package com.rendertemplate.model;
 
+import com.rendertemplate.format.ValueFormat;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 /**
  * Represents a template with structured sections and associated data for rendering.
@@ -14,11 +20,17 @@ public class Template {
     private final String name;
     private final List<TemplateSection> sections;
     private final Map<String, Object> data;
+    private final RowSource rows;
+    private final Map<String, ValueFormat> formats;
+    private final Locale locale;
 
     private Template(Builder builder) {
         this.name = builder.name;
         this.sections = List.copyOf(builder.sections);
         this.data = Collections.unmodifiableMap(new HashMap<>(builder.data));
+        this.rows = builder.rows;
+        this.formats = Map.copyOf(builder.formats);
+        this.locale = builder.locale != null ? builder.locale : Locale.getDefault(Locale.Category.FORMAT);
     }
 
     public String getName() {
@@ -37,6 +49,95 @@ public class Template {
         return data.get(key);
     }
 
+    /**
+     * Returns the value format configured for each placeholder key. Keys without an entry are
+     * written with {@link ValueFormat#standard()}.
+     */
+    public Map<String, ValueFormat> getFormats() {
+        return formats;
+    }
+
+    /**
+     * Returns the locale used by format directives such as {@code {{amount:currency}}}: the
+     * one set on the builder, or else the default format locale when the template was built.
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Returns true if rows were supplied through {@link Builder#rows(RowSource)} rather than
+     * the template data.
+     */
+    public boolean hasRowSource() {
+        return rows != null;
+    }
+
+    /**
+     * Returns the rows rendered by {@code Table} sections.
+     *
+     * <p>Rows come from the source set with {@link Builder#rows(RowSource)} if any. Otherwise a
+     * {@code "rows"} data entry holding a {@code List} of maps is used (non-map elements are
+     * skipped), and failing that the template data itself is rendered as a single row.</p>
+     *
+     * @return the row source
+     */
+    public RowSource getRows() {
+        if (rows != null) {
+            return rows;
+        }
+        if (data.get("rows") instanceof List<?> list) {
+            return () -> mapsOnly(list.iterator());
+        }
+        return RowSource.of(List.of(data));
+    }
+
+    /**
+     * Returns the number of rows {@link #getRows()} yields if it is known without iterating
+     * them, or -1 for rows supplied through a {@link RowSource} other than {@link ColumnarRows}.
+     * For a {@code "rows"} data list this is the list size, which overcounts if the list holds
+     * non-map elements.
+     */
+    public int knownRowCount() {
+        if (rows instanceof ColumnarRows columnar) {
+            return columnar.size();
+        }
+        if (rows != null) {
+            return -1;
+        }
+        if (data.get("rows") instanceof List<?> list) {
+            return list.size();
+        }
+        return 1;
+    }
+
+    private static Iterator<Map<String, Object>> mapsOnly(Iterator<?> elements) {
+        return new Iterator<>() {
+            private Map<String, Object> next;
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean hasNext() {
+                while (next == null && elements.hasNext()) {
+                    if (elements.next() instanceof Map<?, ?> map) {
+                        next = (Map<String, Object>) map;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map<String, Object> row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -45,6 +146,9 @@ public class Template {
         private String name;
         private final List<TemplateSection> sections = new ArrayList<>();
         private final Map<String, Object> data = new HashMap<>();
+        private RowSource rows;
+        private final Map<String, ValueFormat> formats = new HashMap<>();
+        private Locale locale;
 
         public Builder name(String name) {
             this.name = name;
@@ -81,6 +185,46 @@ public class Template {
             return this;
         }
 
+        public Builder rows(RowSource rows) {
+            this.rows = rows;
+            return this;
+        }
+
+        public Builder rows(Iterable<? extends Map<String, Object>> rows) {
+            return rows(RowSource.of(rows));
+        }
+
+        public Builder rows(Stream<? extends Map<String, Object>> rows) {
+            return rows(RowSource.once(rows));
+        }
+
+        public Builder rows(Iterator<? extends Map<String, Object>> rows) {
+            return rows(RowSource.once(rows));
+        }
+
+        /**
+         * Sets the format used to write the values of a placeholder key, in every section.
+         *
+         * @param key    the placeholder key
+         * @param format the value format
+         * @return this builder
+         */
+        public Builder format(String key, ValueFormat format) {
+            this.formats.put(key, format);
+            return this;
+        }
+
+        /**
+         * Sets the locale used by format directives in placeholders.
+         *
+         * @param locale the locale
+         * @return this builder
+         */
+        public Builder locale(Locale locale) {
+            this.locale = locale;
+            return this;
+        }
+
         public Template build() {
             if (name == null || name.isBlank()) {
                 throw new IllegalStateException("Template name is required");
@@ -12,5 +12,15 @@ public sealed interface TemplateSection {
 
     record Paragraph(String text) implements TemplateSection {}
 
-    record Table(List<String> headers, List<String> columns) implements TemplateSection {}
+    /**
+     * A table section. The header and column lists are copied, so sections stay equal to what
+     * they were built from and can be used as cache keys.
+     */
+    record Table(List<String> headers, List<String> columns) implements TemplateSection {
+
+        public Table {
+            headers = List.copyOf(headers);
+            columns = List.copyOf(columns);
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package com.rendertemplate.renderer;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of {@link Utf8Buffer}s shared by the renderers, so the output and scratch
+ * buffers of a render are reused by later renders instead of becoming garbage.
+ *
+ * <p>A buffer is checked out by one render at a time and returned when the render is done.
+ * Buffers that grew past {@code maxBufferBytes} are dropped on release rather than kept, so
+ * one unusually large render does not pin its memory. Like {@link PdfFontPool}, the pool holds
+ * no thread-local state: any thread, platform or virtual, takes whatever buffer is idle.</p>
+ */
+final class BufferPool {
+
+    static final int DEFAULT_MAX_BUFFER_BYTES = 1024 * 1024;
+
+    private static final BufferPool SHARED =
+            new BufferPool(Runtime.getRuntime().availableProcessors() * 4, DEFAULT_MAX_BUFFER_BYTES);
+
+    private final ConcurrentLinkedQueue<Utf8Buffer> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int maxIdle;
+    private final int maxBufferBytes;
+
+    BufferPool(int maxIdle, int maxBufferBytes) {
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException("Max idle must not be negative: " + maxIdle);
+        }
+        if (maxBufferBytes < 1) {
+            throw new IllegalArgumentException("Max buffer bytes must be positive: " + maxBufferBytes);
+        }
+        this.maxIdle = maxIdle;
+        this.maxBufferBytes = maxBufferBytes;
+    }
+
+    /**
+     * Returns the pool shared by the built-in renderers.
+     */
+    static BufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Takes an idle buffer from the pool, or creates one if none is available. The buffer is
+     * empty and can hold at least {@code minCapacity} bytes without growing.
+     */
+    Utf8Buffer acquire(int minCapacity) {
+        Utf8Buffer buffer = idle.poll();
+        if (buffer == null) {
+            return new Utf8Buffer(minCapacity);
+        }
+        idleCount.decrementAndGet();
+        buffer.reset();
+        buffer.ensureCapacity(minCapacity);
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer is dropped if it is larger than the size cap or
+     * the pool is already full. The caller must not use the buffer afterwards.
+     */
+    void release(Utf8Buffer buffer) {
+        if (buffer.capacity() > maxBufferBytes) {
+            return;
+        }
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(buffer);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    int idleCount() {
+        return idleCount.get();
+    }
+}
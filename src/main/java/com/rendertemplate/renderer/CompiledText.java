@@ -0,0 +1,264 @@
+package com.rendertemplate.renderer;
+
+import com.rendertemplate.format.ValueFormat;
+
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Pre-parsed form of a text containing {@code {{placeholder}}} expressions.
+ *
+ * <p>The text is split once into alternating literal and key segments, so resolving it
+ * against a data map is a simple walk over the segments with no regex matching.
+ * Instances are immutable and safe to share between threads.</p>
+ *
+ * <p>A placeholder may carry a format directive after a colon, as in
+ * {@code {{amount:currency}}} or {@code {{date:yyyy-MM-dd}}}. The directive is kept as text
+ * and only turned into a {@link ValueFormat} for a locale when the text is rendered, see
+ * {@link ValueFormat#directive}.</p>
+ */
+public final class CompiledText {
+
+    private final String source;
+    private final String[] literals;
+    private final String[] keys;
+    private final String[] directives;
+
+    private CompiledText(String source, String[] literals, String[] keys, String[] directives) {
+        this.source = source;
+        this.literals = literals;
+        this.keys = keys;
+        this.directives = directives;
+    }
+
+    /**
+     * Parses the text into literal and placeholder segments.
+     * A placeholder is {@code {{key}}} where the key consists of word characters, optionally
+     * followed by a colon and a non-empty directive without braces: {@code {{key:directive}}}.
+     *
+     * @param text the text to compile
+     * @return the compiled text
+     */
+    public static CompiledText compile(String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<String> directives = new ArrayList<>();
+        int literalStart = 0;
+        int i = text.indexOf("{{");
+        while (i >= 0) {
+            int keyStart = i + 2;
+            int keyEnd = keyStart;
+            while (keyEnd < text.length() && isWordChar(text.charAt(keyEnd))) {
+                keyEnd++;
+            }
+            int end = keyEnd;
+            String directive = null;
+            if (keyEnd > keyStart && keyEnd < text.length() && text.charAt(keyEnd) == ':') {
+                end = directiveEnd(text, keyEnd + 1);
+                directive = text.substring(keyEnd + 1, end);
+            }
+            if (keyEnd > keyStart && !"".equals(directive) && text.startsWith("}}", end)) {
+                literals.add(text.substring(literalStart, i));
+                keys.add(text.substring(keyStart, keyEnd));
+                directives.add(directive);
+                literalStart = end + 2;
+                i = text.indexOf("{{", literalStart);
+            } else {
+                i = text.indexOf("{{", i + 1);
+            }
+        }
+        literals.add(text.substring(literalStart));
+        return new CompiledText(text, literals.toArray(String[]::new), keys.toArray(String[]::new),
+                directives.toArray(String[]::new));
+    }
+
+    private static int directiveEnd(String text, int start) {
+        int end = start;
+        while (end < text.length() && text.charAt(end) != '{' && text.charAt(end) != '}') {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Compiles each text in the list, preserving order.
+     *
+     * @param texts the texts to compile
+     * @return the compiled texts
+     */
+    public static CompiledText[] compileAll(List<String> texts) {
+        CompiledText[] compiled = new CompiledText[texts.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = compile(texts.get(i));
+        }
+        return compiled;
+    }
+
+    /**
+     * Returns the original, uncompiled text.
+     */
+    public String source() {
+        return source;
+    }
+
+    /**
+     * Returns the placeholder keys, in order of appearance.
+     */
+    String[] keys() {
+        return keys;
+    }
+
+    /**
+     * Returns the format directive of each placeholder, or null where there is none.
+     */
+    String[] directives() {
+        return directives;
+    }
+
+    /**
+     * Returns the format of each placeholder: its directive's format for the locale if it
+     * has one, otherwise the format configured for its key, otherwise the standard format.
+     *
+     * @param byKey  the value format per placeholder key
+     * @param locale the locale for directives
+     * @return the format per placeholder, in order of appearance
+     */
+    ValueFormat[] formats(Map<String, ValueFormat> byKey, Locale locale) {
+        ValueFormat[] formats = new ValueFormat[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            formats[i] = directives[i] != null
+                    ? directiveFormat(i, locale)
+                    : byKey.getOrDefault(keys[i], ValueFormat.standard());
+        }
+        return formats;
+    }
+
+    /**
+     * Returns the literal segments; there is always one more literal than there are keys.
+     */
+    String[] literals() {
+        return literals;
+    }
+
+    /**
+     * Returns true if the text contains no placeholders.
+     */
+    public boolean isStatic() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Appends the resolved text to the builder. Missing keys resolve to an empty string.
+     *
+     * @param out     the builder to append to
+     * @param data    the data map for substitution
+     * @param escaper the escaper applied to each resolved value (e.g. HTML escaping)
+     */
+    public void appendTo(StringBuilder out, Map<String, Object> data, Escaper escaper) {
+        appendTo(out, data, escaper, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Appends the resolved text to the builder, applying format directives for the locale.
+     * Missing keys resolve to an empty string.
+     *
+     * @param out     the builder to append to
+     * @param data    the data map for substitution
+     * @param escaper the escaper applied to each resolved value (e.g. HTML escaping)
+     * @param locale  the locale for format directives
+     * @throws RenderException if a directive is invalid or a value does not fit its directive
+     */
+    public void appendTo(StringBuilder out, Map<String, Object> data, Escaper escaper, Locale locale) {
+        out.append(literals[0]);
+        for (int i = 0; i < keys.length; i++) {
+            Object value = data.getOrDefault(keys[i], "");
+            if (directives[i] == null) {
+                escaper.escapeTo(String.valueOf(value), out);
+            } else {
+                StringBuilder formatted = new StringBuilder();
+                ValueFormat format = directiveFormat(i, locale);
+                try {
+                    format.formatTo(value, formatted);
+                } catch (DateTimeException e) {
+                    throw formatFailure(i, e);
+                }
+                escaper.escapeTo(formatted, out);
+            }
+            out.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Resolves the text against the data map. Missing keys resolve to an empty string.
+     *
+     * @param data    the data map for substitution
+     * @param escaper the escaper applied to each resolved value (e.g. HTML escaping)
+     * @return the text with placeholders replaced
+     */
+    public String resolve(Map<String, Object> data, Escaper escaper) {
+        return resolve(data, escaper, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Resolves the text against the data map, applying format directives for the locale.
+     * Missing keys resolve to an empty string.
+     *
+     * @param data    the data map for substitution
+     * @param escaper the escaper applied to each resolved value (e.g. HTML escaping)
+     * @param locale  the locale for format directives
+     * @return the text with placeholders replaced
+     * @throws RenderException if a directive is invalid or a value does not fit its directive
+     */
+    public String resolve(Map<String, Object> data, Escaper escaper, Locale locale) {
+        if (keys.length == 0) {
+            return literals[0];
+        }
+        if (keys.length == 1 && directives[0] == null && literals[0].isEmpty() && literals[1].isEmpty()) {
+            return escaper.escape(String.valueOf(data.getOrDefault(keys[0], "")));
+        }
+        StringBuilder sb = new StringBuilder(source.length() + 16 * keys.length);
+        appendTo(sb, data, escaper, locale);
+        return sb.toString();
+    }
+
+    /**
+     * Resolves the text without any escaping.
+     */
+    public String resolve(Map<String, Object> data) {
+        return resolve(data, Escaper.none());
+    }
+
+    /**
+     * Returns the format of a placeholder's directive, reporting an invalid directive as a
+     * render failure naming the placeholder.
+     */
+    private ValueFormat directiveFormat(int i, Locale locale) {
+        try {
+            return ValueFormat.directive(directives[i], locale);
+        } catch (IllegalArgumentException e) {
+            throw new RenderException("Invalid format directive '%s' in placeholder '%s'"
+                    .formatted(directives[i], keys[i]), e);
+        }
+    }
+
+    /**
+     * Wraps a failure to format a placeholder's value, e.g. a date under a time pattern.
+     */
+    RenderException formatFailure(int i, RuntimeException cause) {
+        String format = directives[i] != null ? " with directive '%s'".formatted(directives[i]) : "";
+        return new RenderException("Cannot format placeholder '%s'%s: %s"
+                .formatted(keys[i], format, cause.getMessage()), cause);
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledText{source='%s', keys=%d}".formatted(source, keys.length);
+    }
+}
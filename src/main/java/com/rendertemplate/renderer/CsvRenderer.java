@@ -1,13 +1,11 @@
 package com.rendertemplate.renderer;
 
 import com.rendertemplate.model.RenderFormat;
-import com.rendertemplate.model.RenderResult;
 import com.rendertemplate.model.Template;
 import com.rendertemplate.model.TemplateSection;
 
-import java.nio.charset.StandardCharsets;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * Renderer that converts templates to CSV format.
@@ -16,38 +14,35 @@ import java.util.Map;
  * are ignored. If no {@code Table} section exists, a {@link RenderException} is thrown.</p>
  *
  * <p>Values containing commas, double quotes, or newlines are escaped per RFC 4180.</p>
+ *
+ * <p>With {@link ParallelRowOptions}, the rows of large tables are rendered in blocks on a
+ * fork-join pool.</p>
  */
-public class CsvRenderer implements TemplateRenderer {
+public class CsvRenderer implements PassRenderer {
 
-    @Override
-    public RenderResult render(Template template) {
-        TemplateSection.Table table = template.getSections().stream()
-                .filter(s -> s instanceof TemplateSection.Table)
-                .map(s -> (TemplateSection.Table) s)
-                .findFirst()
-                .orElseThrow(() -> new RenderException("CSV rendering requires at least one Table section"));
-
-        StringBuilder result = new StringBuilder();
-
-        // Header row
-        for (int i = 0; i < table.headers().size(); i++) {
-            if (i > 0) result.append(",");
-            result.append(escapeCsvValue(table.headers().get(i)));
-        }
+    private final ParallelRowOptions parallelRows;
 
-        // Data rows
-        List<Map<String, Object>> rows = extractRows(template);
-        for (Map<String, Object> row : rows) {
-            result.append("\n");
-            for (int i = 0; i < table.columns().size(); i++) {
-                if (i > 0) result.append(",");
-                String resolved = PlaceholderResolver.resolve(table.columns().get(i), row);
-                result.append(escapeCsvValue(resolved));
-            }
-        }
+    public CsvRenderer() {
+        this(null);
+    }
+
+    /**
+     * Creates a renderer that renders the rows of large tables in parallel blocks.
+     *
+     * @param parallelRows the parallel row settings, or null to render rows in sequence
+     */
+    public CsvRenderer(ParallelRowOptions parallelRows) {
+        this.parallelRows = parallelRows;
+    }
 
-        byte[] bytes = result.toString().getBytes(StandardCharsets.UTF_8);
-        return new RenderResult(bytes, RenderFormat.CSV, template.getName());
+    @Override
+    public RenderPass openPass(Template template, OutputStream out) {
+        boolean hasTable = template.getSections().stream()
+                .anyMatch(s -> s instanceof TemplateSection.Table);
+        if (!hasTable) {
+            throw new RenderException("CSV rendering requires at least one Table section");
+        }
+        return new CsvPass(template.getName(), new TextOutput(out), parallelRows);
     }
 
     @Override
@@ -55,22 +50,84 @@ public class CsvRenderer implements TemplateRenderer {
         return RenderFormat.CSV;
     }
 
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> extractRows(Template template) {
-        Object rowsData = template.getData("rows");
-        if (rowsData instanceof List<?> rows) {
-            return rows.stream()
-                    .filter(r -> r instanceof Map)
-                    .map(r -> (Map<String, Object>) r)
-                    .toList();
-        }
-        return List.of(template.getData());
+    String escapeCsvValue(String value) {
+        return Escaper.csv().escape(value);
     }
 
-    String escapeCsvValue(String value) {
-        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
+    private static final class CsvPass implements RenderPass {
+
+        private final TextOutput output;
+        private final Utf8Buffer result;
+        private final Escaper escaper = Escaper.csv();
+        private final RowBlockWriter rowBlocks;
+        private boolean tableSeen;
+
+        CsvPass(String templateName, TextOutput output, ParallelRowOptions parallelRows) {
+            this.output = output;
+            this.result = output.buffer();
+            this.rowBlocks = parallelRows == null ? null
+                    : new RowBlockWriter(templateName, RenderFormat.CSV, parallelRows, output, this::appendRow);
+        }
+
+        @Override
+        public void heading(ResolvedText text) {
+        }
+
+        @Override
+        public void paragraph(ResolvedText text) {
+        }
+
+        @Override
+        public boolean beginTable(TemplateSection.Table table) {
+            // Only the first table is rendered
+            if (tableSeen) {
+                return false;
+            }
+            tableSeen = true;
+
+            // Header row
+            for (int i = 0; i < table.headers().size(); i++) {
+                if (i > 0) result.append(',');
+                escaper.escapeTo(table.headers().get(i), result);
+            }
+            return true;
+        }
+
+        @Override
+        public void row(ResolvedText[] cells) throws IOException {
+            if (rowBlocks != null && rowBlocks.offer(cells)) {
+                return;
+            }
+            appendRow(result, cells);
+            output.flushIfFull();
+        }
+
+        @Override
+        public void endTable(TemplateSection.Table table) throws IOException {
+            if (rowBlocks != null) {
+                rowBlocks.endTable();
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            output.finish();
+        }
+
+        @Override
+        public void close() {
+            if (rowBlocks != null) {
+                rowBlocks.cancel();
+            }
+            output.release();
+        }
+
+        private void appendRow(Utf8Buffer out, ResolvedText[] cells) {
+            out.append('\n');
+            for (int i = 0; i < cells.length; i++) {
+                if (i > 0) out.append(',');
+                cells[i].appendEscapedTo(out, escaper);
+            }
         }
-        return value;
     }
 }
@@ -0,0 +1,106 @@
+package com.rendertemplate.renderer;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Escapes substituted values for a specific output format.
+ *
+ * <p>The built-in escapers scan each value once. A value that needs no escaping is returned
+ * as is by {@link #escape(String)} and copied straight into the buffer by
+ * {@link #escapeTo(String, StringBuilder)}, so no intermediate strings are created.</p>
+ */
+public interface Escaper {
+
+    /**
+     * Appends the escaped value to the buffer.
+     *
+     * @param value the value to escape
+     * @param out   the buffer to append to
+     */
+    void escapeTo(String value, StringBuilder out);
+
+    /**
+     * Appends the escaped value to the byte buffer, encoded to UTF-8. The built-in escapers
+     * write straight into the buffer; the default implementation appends {@link #escape(String)}.
+     *
+     * @param value the value to escape
+     * @param out   the buffer to append to
+     */
+    default void escapeTo(String value, Utf8Buffer out) {
+        out.append(escape(value));
+    }
+
+    /**
+     * Appends an escaped value held in a character sequence, e.g. a number formatted into a
+     * reused {@link StringBuilder}. The built-in escapers read the sequence directly; the
+     * default implementation converts it to a string first.
+     *
+     * @param value the value to escape
+     * @param out   the buffer to append to
+     */
+    default void escapeTo(CharSequence value, StringBuilder out) {
+        escapeTo(value.toString(), out);
+    }
+
+    /**
+     * Appends an escaped value held in a character sequence to the byte buffer, encoded to
+     * UTF-8. The built-in escapers read the sequence directly; the default implementation
+     * converts it to a string first.
+     *
+     * @param value the value to escape
+     * @param out   the buffer to append to
+     */
+    default void escapeTo(CharSequence value, Utf8Buffer out) {
+        escapeTo(value.toString(), out);
+    }
+
+    /**
+     * Returns the escaped value, or the value itself if nothing needs escaping.
+     *
+     * @param value the value to escape
+     * @return the escaped value
+     */
+    String escape(String value);
+
+    /**
+     * Returns an escaper that leaves values unchanged.
+     */
+    static Escaper none() {
+        return Escapers.NONE;
+    }
+
+    /**
+     * Returns an escaper that replaces {@code & < > " '} with HTML character references.
+     */
+    static Escaper html() {
+        return Escapers.HTML;
+    }
+
+    /**
+     * Returns an escaper that quotes values containing commas, double quotes or line breaks
+     * per RFC 4180, doubling embedded double quotes.
+     */
+    static Escaper csv() {
+        return Escapers.CSV;
+    }
+
+    /**
+     * Adapts a string function to an escaper.
+     *
+     * @param function the escaping function
+     * @return the escaper
+     */
+    static Escaper of(UnaryOperator<String> function) {
+        return new Escaper() {
+            @Override
+            public void escapeTo(String value, StringBuilder out) {
+                out.append(function.apply(value));
+            }
+
+            @Override
+            public String escape(String value) {
+                return function.apply(value);
+            }
+        };
+    }
+}
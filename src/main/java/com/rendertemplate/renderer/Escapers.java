@@ -0,0 +1,211 @@
+package com.rendertemplate.renderer;
+
+/**
+ * Built-in single-pass {@link Escaper} implementations. Each reads strings and other character
+ * sequences, such as values formatted into a reused builder, the same way.
+ */
+enum Escapers implements Escaper {
+
+    NONE {
+        @Override
+        public void escapeTo(String value, StringBuilder out) {
+            out.append(value);
+        }
+
+        @Override
+        public void escapeTo(String value, Utf8Buffer out) {
+            out.append(value);
+        }
+
+        @Override
+        public void escapeTo(CharSequence value, StringBuilder out) {
+            out.append(value);
+        }
+
+        @Override
+        public void escapeTo(CharSequence value, Utf8Buffer out) {
+            out.append(value, 0, value.length());
+        }
+
+        @Override
+        public String escape(String value) {
+            return value;
+        }
+    },
+
+    HTML {
+        @Override
+        public void escapeTo(String value, StringBuilder out) {
+            appendHtml(value, out);
+        }
+
+        @Override
+        public void escapeTo(String value, Utf8Buffer out) {
+            appendHtml(value, out);
+        }
+
+        @Override
+        public void escapeTo(CharSequence value, StringBuilder out) {
+            appendHtml(value, out);
+        }
+
+        @Override
+        public void escapeTo(CharSequence value, Utf8Buffer out) {
+            appendHtml(value, out);
+        }
+
+        @Override
+        public String escape(String value) {
+            int first = firstHtmlSpecial(value);
+            if (first < 0) {
+                return value;
+            }
+            StringBuilder sb = new StringBuilder(value.length() + 16);
+            appendHtmlFrom(value, first, sb);
+            return sb.toString();
+        }
+    },
+
+    CSV {
+        @Override
+        public void escapeTo(String value, StringBuilder out) {
+            appendCsv(value, out);
+        }
+
+        @Override
+        public void escapeTo(String value, Utf8Buffer out) {
+            appendCsv(value, out);
+        }
+
+        @Override
+        public void escapeTo(CharSequence value, StringBuilder out) {
+            appendCsv(value, out);
+        }
+
+        @Override
+        public void escapeTo(CharSequence value, Utf8Buffer out) {
+            appendCsv(value, out);
+        }
+
+        @Override
+        public String escape(String value) {
+            int first = firstCsvSpecial(value);
+            if (first < 0) {
+                return value;
+            }
+            StringBuilder sb = new StringBuilder(value.length() + 8);
+            appendCsvQuoted(value, first, sb);
+            return sb.toString();
+        }
+    };
+
+    private static final String[] HTML_REPLACEMENTS = new String[128];
+    private static final byte[][] HTML_REPLACEMENT_BYTES = new byte[128][];
+
+    static {
+        HTML_REPLACEMENTS['&'] = "&amp;";
+        HTML_REPLACEMENTS['<'] = "&lt;";
+        HTML_REPLACEMENTS['>'] = "&gt;";
+        HTML_REPLACEMENTS['"'] = "&quot;";
+        HTML_REPLACEMENTS['\''] = "&#39;";
+        for (int c = 0; c < HTML_REPLACEMENTS.length; c++) {
+            if (HTML_REPLACEMENTS[c] != null) {
+                HTML_REPLACEMENT_BYTES[c] = Utf8Buffer.encode(HTML_REPLACEMENTS[c]);
+            }
+        }
+    }
+
+    private static void appendHtml(CharSequence value, StringBuilder out) {
+        int first = firstHtmlSpecial(value);
+        if (first < 0) {
+            out.append(value);
+        } else {
+            appendHtmlFrom(value, first, out);
+        }
+    }
+
+    private static void appendHtml(CharSequence value, Utf8Buffer out) {
+        int start = 0;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            byte[] replacement = c < 128 ? HTML_REPLACEMENT_BYTES[c] : null;
+            if (replacement != null) {
+                out.append(value, start, i).append(replacement);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length());
+    }
+
+    private static int firstHtmlSpecial(CharSequence value) {
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 128 && HTML_REPLACEMENTS[c] != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void appendHtmlFrom(CharSequence value, int first, StringBuilder out) {
+        out.append(value, 0, first);
+        int start = first;
+        for (int i = first, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            String replacement = c < 128 ? HTML_REPLACEMENTS[c] : null;
+            if (replacement != null) {
+                out.append(value, start, i).append(replacement);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length());
+    }
+
+    private static void appendCsv(CharSequence value, StringBuilder out) {
+        int first = firstCsvSpecial(value);
+        if (first < 0) {
+            out.append(value);
+        } else {
+            appendCsvQuoted(value, first, out);
+        }
+    }
+
+    private static void appendCsv(CharSequence value, Utf8Buffer out) {
+        int first = firstCsvSpecial(value);
+        if (first < 0) {
+            out.append(value, 0, value.length());
+            return;
+        }
+        out.append('"').append(value, 0, first);
+        int start = first;
+        for (int i = first, n = value.length(); i < n; i++) {
+            if (value.charAt(i) == '"') {
+                out.append(value, start, i + 1).append('"');
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length()).append('"');
+    }
+
+    private static int firstCsvSpecial(CharSequence value) {
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void appendCsvQuoted(CharSequence value, int first, StringBuilder out) {
+        out.append('"').append(value, 0, first);
+        int start = first;
+        for (int i = first, n = value.length(); i < n; i++) {
+            if (value.charAt(i) == '"') {
+                out.append(value, start, i + 1).append('"');
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length()).append('"');
+    }
+}
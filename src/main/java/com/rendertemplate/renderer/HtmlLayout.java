@@ -0,0 +1,138 @@
+package com.rendertemplate.renderer;
+
+import com.rendertemplate.model.TemplateSection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The static parts of a template's HTML, encoded to UTF-8 once per section layout.
+ *
+ * <p>Each heading, paragraph and table row is stored as the fragments between its placeholder
+ * values, with the surrounding markup folded into the first and last fragment: the heading
+ * {@code Hello {{name}}!} becomes {@code <h1>Hello } and {@code !</h1>}, and a row of two
+ * one-placeholder columns {@code <tr><td>}, {@code </td><td>} and {@code </td></tr>}. A table's
+ * opening markup, escaped headers included, is a single fragment. Rendering then copies
+ * fragments and writes only the values in between.</p>
+ *
+ * <p>Instances are immutable and shared by all renders of templates with equal sections.</p>
+ */
+final class HtmlLayout {
+
+    private final byte[][][] fragments;
+    private final byte[][] tableHeads;
+
+    private HtmlLayout(byte[][][] fragments, byte[][] tableHeads) {
+        this.fragments = fragments;
+        this.tableHeads = tableHeads;
+    }
+
+    /**
+     * Encodes the static parts of the sections.
+     *
+     * @param sections the template sections
+     * @param escaper  the escaper applied to table headers
+     * @return the layout
+     */
+    static HtmlLayout compile(List<TemplateSection> sections, Escaper escaper) {
+        byte[][][] fragments = new byte[sections.size()][][];
+        byte[][] tableHeads = new byte[sections.size()][];
+        Utf8Buffer current = new Utf8Buffer();
+        List<byte[]> split = new ArrayList<>();
+        for (int s = 0; s < fragments.length; s++) {
+            switch (sections.get(s)) {
+                case TemplateSection.Heading h -> {
+                    current.append("<h1>");
+                    appendText(CompiledText.compile(h.text()), current, split);
+                    current.append("</h1>");
+                }
+                case TemplateSection.Paragraph p -> {
+                    current.append("<p>");
+                    appendText(CompiledText.compile(p.text()), current, split);
+                    current.append("</p>");
+                }
+                case TemplateSection.Table t -> {
+                    current.append("<table><thead><tr>");
+                    for (String header : t.headers()) {
+                        current.append("<th>");
+                        escaper.escapeTo(header, current);
+                        current.append("</th>");
+                    }
+                    current.append("</tr></thead><tbody>");
+                    tableHeads[s] = current.toByteArray();
+                    current.reset();
+
+                    current.append("<tr>");
+                    for (String column : t.columns()) {
+                        current.append("<td>");
+                        appendText(CompiledText.compile(column), current, split);
+                        current.append("</td>");
+                    }
+                    current.append("</tr>");
+                }
+            }
+            split.add(current.toByteArray());
+            current.reset();
+            fragments[s] = split.toArray(byte[][]::new);
+            split.clear();
+        }
+        return new HtmlLayout(fragments, tableHeads);
+    }
+
+    /**
+     * Appends the literals of the text to the current fragment, closing it at each placeholder.
+     */
+    private static void appendText(CompiledText text, Utf8Buffer current, List<byte[]> split) {
+        String[] literals = text.literals();
+        current.append(literals[0]);
+        for (int i = 1; i < literals.length; i++) {
+            split.add(current.toByteArray());
+            current.reset();
+            current.append(literals[i]);
+        }
+    }
+
+    /**
+     * Returns the fragments of a heading or paragraph, or of one row of a table.
+     */
+    byte[][] fragments(int section) {
+        return fragments[section];
+    }
+
+    /**
+     * Returns the opening markup of a table section, through {@code <tbody>}.
+     */
+    byte[] tableHead(int section) {
+        return tableHeads[section];
+    }
+
+    /**
+     * Writes the fragments with the values of the texts spliced in between, in order.
+     *
+     * @param out       the buffer to append to
+     * @param fragments the fragments, one more than the values of all texts together
+     * @param texts     the texts whose values to write
+     * @param escaper   the escaper applied to each value
+     */
+    static void splice(Utf8Buffer out, byte[][] fragments, ResolvedText[] texts, Escaper escaper) {
+        out.append(fragments[0]);
+        int next = 1;
+        for (ResolvedText text : texts) {
+            for (int i = 0; i < text.valueCount(); i++) {
+                text.appendValueTo(i, out, escaper);
+                out.append(fragments[next++]);
+            }
+        }
+    }
+
+    /**
+     * Writes the fragments with the values of one text spliced in between.
+     */
+    static void splice(Utf8Buffer out, byte[][] fragments, ResolvedText text, Escaper escaper) {
+        out.append(fragments[0]);
+        for (int i = 0; i < text.valueCount(); i++) {
+            text.appendValueTo(i, out, escaper);
+            out.append(fragments[i + 1]);
+        }
+    }
+}
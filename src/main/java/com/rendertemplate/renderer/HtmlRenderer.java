@@ -1,13 +1,14 @@
 package com.rendertemplate.renderer;
 
 import com.rendertemplate.model.RenderFormat;
-import com.rendertemplate.model.RenderResult;
 import com.rendertemplate.model.Template;
 import com.rendertemplate.model.TemplateSection;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Renderer that converts templates to HTML format.
@@ -20,55 +21,50 @@ import java.util.Map;
  * </ul>
  * Output is wrapped in {@code <html><body>...</body></html>}.
  * All substituted values are HTML-escaped to prevent XSS.</p>
+ *
+ * <p>With {@link ParallelRowOptions}, the rows of large tables are rendered in blocks on a
+ * fork-join pool. An overridden {@link #escapeHtml(String)} must then be thread-safe.</p>
+ *
+ * <p>The markup and literal text of each section layout is encoded to UTF-8 once and kept,
+ * see {@link HtmlLayout}; rendering a layout again with new data copies those bytes and
+ * writes only the placeholder values. Table headers are escaped when the layout is first
+ * seen, so an overridden {@link #escapeHtml(String)} is not called for them on every render.</p>
  */
-public class HtmlRenderer implements TemplateRenderer {
+public class HtmlRenderer implements PassRenderer {
+
+    private static final byte[] DOCUMENT_START = Utf8Buffer.encode("<html><body>");
+    private static final byte[] DOCUMENT_END = Utf8Buffer.encode("</body></html>");
+    private static final byte[] TABLE_END = Utf8Buffer.encode("</tbody></table>");
+
+    // Layouts are few and long-lived in practice; past this many new ones are not kept
+    private static final int MAX_LAYOUTS = 256;
+
+    private final boolean customEscaping;
+    private final ParallelRowOptions parallelRows;
+    private final Map<List<TemplateSection>, HtmlLayout> layouts = new ConcurrentHashMap<>();
+
+    public HtmlRenderer() {
+        this(null);
+    }
+
+    /**
+     * Creates a renderer that renders the rows of large tables in parallel blocks.
+     *
+     * @param parallelRows the parallel row settings, or null to render rows in sequence
+     */
+    public HtmlRenderer(ParallelRowOptions parallelRows) {
+        // Subclasses overriding escapeHtml keep their behaviour; otherwise escape straight into the buffer
+        this.customEscaping = overridesEscapeHtml();
+        this.parallelRows = parallelRows;
+    }
 
     @Override
-    public RenderResult render(Template template) {
+    public RenderPass openPass(Template template, OutputStream out) {
         if (template.getSections().isEmpty()) {
             throw new RenderException("Template must have at least one section for HTML rendering");
         }
-
-        StringBuilder html = new StringBuilder();
-        html.append("<html><body>");
-
-        for (TemplateSection section : template.getSections()) {
-            switch (section) {
-                case TemplateSection.Heading h -> {
-                    String resolved = PlaceholderResolver.resolve(h.text(), template.getData(), this::escapeHtml);
-                    html.append("<h1>").append(resolved).append("</h1>");
-                }
-                case TemplateSection.Paragraph p -> {
-                    String resolved = PlaceholderResolver.resolve(p.text(), template.getData(), this::escapeHtml);
-                    html.append("<p>").append(resolved).append("</p>");
-                }
-                case TemplateSection.Table t -> {
-                    html.append("<table>");
-                    html.append("<thead><tr>");
-                    for (String header : t.headers()) {
-                        html.append("<th>").append(escapeHtml(header)).append("</th>");
-                    }
-                    html.append("</tr></thead>");
-                    html.append("<tbody>");
-                    List<Map<String, Object>> rows = extractRows(template);
-                    for (Map<String, Object> row : rows) {
-                        html.append("<tr>");
-                        for (String col : t.columns()) {
-                            String resolved = PlaceholderResolver.resolve(col, row, this::escapeHtml);
-                            html.append("<td>").append(resolved).append("</td>");
-                        }
-                        html.append("</tr>");
-                    }
-                    html.append("</tbody>");
-                    html.append("</table>");
-                }
-            }
-        }
-
-        html.append("</body></html>");
-
-        byte[] bytes = html.toString().getBytes(StandardCharsets.UTF_8);
-        return new RenderResult(bytes, RenderFormat.HTML, template.getName());
+        Escaper escaper = escaper();
+        return new HtmlPass(template.getName(), layout(template.getSections(), escaper), escaper, new TextOutput(out));
     }
 
     @Override
@@ -76,24 +72,114 @@ public class HtmlRenderer implements TemplateRenderer {
         return RenderFormat.HTML;
     }
 
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> extractRows(Template template) {
-        Object rowsData = template.getData("rows");
-        if (rowsData instanceof List<?> rows) {
-            return rows.stream()
-                    .filter(r -> r instanceof Map)
-                    .map(r -> (Map<String, Object>) r)
-                    .toList();
+    protected String escapeHtml(String value) {
+        return Escaper.html().escape(value);
+    }
+
+    /**
+     * Returns the escaper for a render. It is made per render rather than in the constructor,
+     * which must not hand {@code this} to an overridable method before a subclass is initialized.
+     */
+    private Escaper escaper() {
+        return customEscaping ? Escaper.of(this::escapeHtml) : Escaper.html();
+    }
+
+    private HtmlLayout layout(List<TemplateSection> sections, Escaper escaper) {
+        HtmlLayout layout = layouts.get(sections);
+        if (layout != null) {
+            return layout;
+        }
+        if (layouts.size() >= MAX_LAYOUTS) {
+            return HtmlLayout.compile(sections, escaper);
         }
-        return List.of(template.getData());
+        return layouts.computeIfAbsent(sections, s -> HtmlLayout.compile(s, escaper));
     }
 
-    protected String escapeHtml(String value) {
-        return value
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&#39;");
+    private boolean overridesEscapeHtml() {
+        for (Class<?> type = getClass(); type != HtmlRenderer.class; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod("escapeHtml", String.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not declared here, keep walking up
+            }
+        }
+        return false;
+    }
+
+    private final class HtmlPass implements RenderPass {
+
+        private final HtmlLayout layout;
+        private final Escaper escaper;
+        private final TextOutput output;
+        private final Utf8Buffer html;
+        private final RowBlockWriter rowBlocks;
+        private int section;
+        private byte[][] rowFragments;
+
+        HtmlPass(String templateName, HtmlLayout layout, Escaper escaper, TextOutput output) {
+            this.layout = layout;
+            this.escaper = escaper;
+            this.output = output;
+            this.html = output.buffer();
+            this.rowBlocks = parallelRows == null ? null
+                    : new RowBlockWriter(templateName, RenderFormat.HTML, parallelRows, output, this::appendRow);
+            html.append(DOCUMENT_START);
+        }
+
+        @Override
+        public void heading(ResolvedText text) throws IOException {
+            HtmlLayout.splice(html, layout.fragments(section++), text, escaper);
+            output.flushIfFull();
+        }
+
+        @Override
+        public void paragraph(ResolvedText text) throws IOException {
+            HtmlLayout.splice(html, layout.fragments(section++), text, escaper);
+            output.flushIfFull();
+        }
+
+        @Override
+        public boolean beginTable(TemplateSection.Table table) {
+            html.append(layout.tableHead(section));
+            rowFragments = layout.fragments(section++);
+            return true;
+        }
+
+        @Override
+        public void row(ResolvedText[] cells) throws IOException {
+            if (rowBlocks != null && rowBlocks.offer(cells)) {
+                return;
+            }
+            appendRow(html, cells);
+            output.flushIfFull();
+        }
+
+        @Override
+        public void endTable(TemplateSection.Table table) throws IOException {
+            if (rowBlocks != null) {
+                rowBlocks.endTable();
+            }
+            html.append(TABLE_END);
+            output.flushIfFull();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            html.append(DOCUMENT_END);
+            output.finish();
+        }
+
+        @Override
+        public void close() {
+            if (rowBlocks != null) {
+                rowBlocks.cancel();
+            }
+            output.release();
+        }
+
+        private void appendRow(Utf8Buffer out, ResolvedText[] cells) {
+            HtmlLayout.splice(out, rowFragments, cells, escaper);
+        }
     }
 }
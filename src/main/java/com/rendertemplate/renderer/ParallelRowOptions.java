@@ -0,0 +1,41 @@
+package com.rendertemplate.renderer;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Settings for rendering the rows of large tables in parallel blocks, used by
+ * {@link HtmlRenderer} and {@link CsvRenderer}.
+ *
+ * <p>The first {@code rowThreshold} rows of each table are rendered in sequence. Rows beyond
+ * it are grouped into blocks of {@code blockRows}; each block is escaped and encoded to its own
+ * UTF-8 chunk on the pool, and the chunks are written to the output in order.</p>
+ *
+ * @param pool         the pool that renders the blocks
+ * @param rowThreshold the number of rows per table rendered in sequence before blocks are used
+ * @param blockRows    the number of rows per block
+ */
+public record ParallelRowOptions(ForkJoinPool pool, int rowThreshold, int blockRows) {
+
+    /**
+     * Default number of rows per block.
+     */
+    public static final int DEFAULT_BLOCK_ROWS = 2048;
+
+    public ParallelRowOptions {
+        Objects.requireNonNull(pool, "pool must not be null");
+        if (rowThreshold < 0) {
+            throw new IllegalArgumentException("Row threshold must not be negative: " + rowThreshold);
+        }
+        if (blockRows < 1) {
+            throw new IllegalArgumentException("Block rows must be positive: " + blockRows);
+        }
+    }
+
+    /**
+     * Creates options with the default block size.
+     */
+    public static ParallelRowOptions of(ForkJoinPool pool, int rowThreshold) {
+        return new ParallelRowOptions(pool, rowThreshold, DEFAULT_BLOCK_ROWS);
+    }
+}
@@ -0,0 +1,70 @@
+package com.rendertemplate.renderer;
+
+import com.rendertemplate.model.ChunkedOutputStream;
+import com.rendertemplate.model.RenderResult;
+import com.rendertemplate.model.Template;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A {@link TemplateRenderer} whose output is produced by a {@link RenderPass}, so it can take
+ * part in a shared multi-format walk over a template.
+ */
+public interface PassRenderer extends TemplateRenderer {
+
+    /**
+     * Opens a pass writing this renderer's output for the template to the stream.
+     * Validation errors are thrown here, before anything is written.
+     *
+     * @param template the template to render
+     * @param out      the stream to write the output to
+     * @return the render pass
+     * @throws RenderException if the template cannot be rendered in this format
+     */
+    RenderPass openPass(Template template, OutputStream out);
+
+    /**
+     * Renders the template in memory. The first output chunk is presized from the
+     * {@linkplain RenderSizeHistory#shared() shared size history}, which the render then updates.
+     */
+    @Override
+    default RenderResult render(Template template) {
+        RenderSizeHistory history = RenderSizeHistory.shared();
+        ChunkedOutputStream out = new ChunkedOutputStream(
+                ChunkedOutputStream.DEFAULT_CHUNK_SIZE, history.estimate(template, getFormat()));
+        long rows = walk(template, out);
+        RenderResult result = RenderResult.of(out.toContent(), getFormat(), template.getName(), rows);
+        history.record(template, getFormat(), rows, result.size());
+        return result;
+    }
+
+    @Override
+    default void render(Template template, OutputStream out) {
+        walk(template, out);
+    }
+
+    /**
+     * Renders the template to the stream as {@link #render(Template, OutputStream)} does and
+     * returns the number of table rows written. For a template whose rows come from a stream
+     * this count is only known once they have been walked.
+     *
+     * @param template the template to render
+     * @param out      the stream to write the output to
+     * @return the number of table rows written
+     * @throws RenderException if rendering or writing fails
+     */
+    default long renderRows(Template template, OutputStream out) {
+        return walk(template, out);
+    }
+
+    private long walk(Template template, OutputStream out) {
+        RenderPass pass = openPass(template, out);
+        try {
+            return RenderWalker.walk(template, List.of(pass));
+        } catch (IOException e) {
+            throw new RenderException("Failed to write " + getFormat() + " output", e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.rendertemplate.renderer;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Builds the Flate-compressed content stream of a page of table rows without touching the
+ * {@code PDDocument}, so that pages can be built on worker threads and attached to the
+ * document afterwards in order.
+ *
+ * <p>The operators match what {@link PdfTextWriter} produces: one text object, one font
+ * selection and relative {@code Td} positioning. Text is encoded with a font instance owned
+ * by the calling thread, since font encoding caches are not thread-safe; any instance of the
+ * same standard font produces the same bytes.</p>
+ */
+final class PdfPageBuilder {
+
+    private static final byte[] HEX_DIGITS = Utf8Buffer.encode("0123456789ABCDEF");
+
+    private PdfPageBuilder() {}
+
+    /**
+     * Lays out the rows top to bottom, one row per line, columns at fixed offsets.
+     *
+     * @param rows         the cell texts of each row
+     * @param encodingFont font used to encode the texts
+     * @param resourceName page resource name the content refers to for the font
+     * @param fontSize     font size
+     * @param left         x of the first column
+     * @param colWidth     width of each column
+     * @param top          baseline y of the first row
+     * @param leading      distance between rows
+     * @return the compressed content stream, in a buffer from the shared {@link BufferPool}
+     *         that the caller releases
+     */
+    static Utf8Buffer buildRows(List<String[]> rows, PDFont encodingFont, String resourceName, float fontSize,
+                                float left, float colWidth, float top, float leading) throws IOException {
+        BufferPool pool = BufferPool.shared();
+        Utf8Buffer ops = pool.acquire(rows.size() * 128);
+        try {
+            ops.append("BT\n/").append(resourceName).append(' ');
+            appendNumber(ops, fontSize);
+            ops.append(" Tf\n");
+
+            float lineX = 0;
+            float lineY = 0;
+            float y = top;
+            for (String[] cells : rows) {
+                for (int i = 0; i < cells.length; i++) {
+                    float x = left + i * colWidth;
+                    appendNumber(ops, x - lineX);
+                    ops.append(' ');
+                    appendNumber(ops, y - lineY);
+                    ops.append(" Td\n<");
+                    for (byte b : encodingFont.encode(cells[i])) {
+                        ops.append(HEX_DIGITS, (b >> 4) & 0xF, 1).append(HEX_DIGITS, b & 0xF, 1);
+                    }
+                    ops.append("> Tj\n");
+                    lineX = x;
+                    lineY = y;
+                }
+                y -= leading;
+            }
+            ops.append("ET\n");
+
+            Utf8Buffer compressed = pool.acquire(ops.length() / 4);
+            try (OutputStream out = new DeflaterOutputStream(sink(compressed))) {
+                ops.writeTo(out);
+            }
+            return compressed;
+        } finally {
+            pool.release(ops);
+        }
+    }
+
+    /**
+     * Appends a number in PDF syntax: no exponent, at most four decimals.
+     */
+    static void appendNumber(Utf8Buffer out, float value) {
+        long scaled = Math.round(value * 10_000.0);
+        if (scaled < 0) {
+            out.append('-');
+            scaled = -scaled;
+        }
+        out.append(Long.toString(scaled / 10_000));
+        long fraction = scaled % 10_000;
+        if (fraction != 0) {
+            out.append('.');
+            String digits = Long.toString(fraction + 10_000);
+            int end = digits.length();
+            while (digits.charAt(end - 1) == '0') {
+                end--;
+            }
+            out.append(digits, 1, end);
+        }
+    }
+
+    private static OutputStream sink(Utf8Buffer buffer) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                buffer.appendByte(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                buffer.append(b, off, len);
+            }
+        };
+    }
+}
@@ -1,20 +1,30 @@
 package com.rendertemplate.renderer;
 
+import com.rendertemplate.jfr.RenderPhaseEvent;
 import com.rendertemplate.model.RenderFormat;
-import com.rendertemplate.model.RenderResult;
 import com.rendertemplate.model.Template;
 import com.rendertemplate.model.TemplateSection;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessStreamCache;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Renderer that converts templates to PDF format.
@@ -25,8 +35,19 @@ import java.util.Map;
  *   <li>{@code Paragraph} &rarr; 12pt regular Helvetica</li>
  *   <li>{@code Table} &rarr; Column-aligned text layout with 12pt font, bold headers</li>
  * </ul>
+ *
+ * <p>By default the document's content streams are kept in memory. With a heap budget, content
+ * beyond the budget spills to scratch files, which are deleted once the document is written.
+ * This bounds the memory taken by page content for very large reports; the document's object
+ * structure itself stays on the heap.</p>
+ *
+ * <p>Table rows all have the same height, so page boundaries are known before any page is
+ * drawn. With a page executor (see {@link Builder#parallelPages(Executor)}), rows that overflow
+ * the current page are buffered a batch of pages at a time; the content stream of each full
+ * page is built and compressed on the executor, and the pages are attached to the document in
+ * order. The output looks the same as a sequential render.</p>
  */
-public class PdfRenderer implements TemplateRenderer {
+public class PdfRenderer implements PassRenderer {
 
     private static final float HEADING_FONT_SIZE = 18f;
     private static final float BODY_FONT_SIZE = 12f;
@@ -34,14 +55,83 @@ public class PdfRenderer implements TemplateRenderer {
     private static final float HEADING_LEADING = 24f;
     private static final float BODY_LEADING = 16f;
 
+    /**
+     * Heap budget value meaning page content is kept entirely in memory.
+     */
+    public static final long UNLIMITED = -1;
+
+    private static final COSName TABLE_FONT_NAME = COSName.getPDFName("F1");
+
+    private static final int DEFAULT_IDLE_FONT_SETS = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final PdfFontPool fontPool;
+    private final long heapBudgetBytes;
+    private final Path scratchDirectory;
+    private final Executor pageExecutor;
+    private final int pagesPerBatch;
+
+    public PdfRenderer() {
+        this(UNLIMITED, null);
+    }
+
+    /**
+     * Creates a renderer whose documents keep at most the given number of bytes of page
+     * content in memory, spilling the rest to scratch files in the default temp directory.
+     *
+     * @param heapBudgetBytes the default heap budget per render, 0 for scratch files only,
+     *                        or {@link #UNLIMITED}
+     */
+    public PdfRenderer(long heapBudgetBytes) {
+        this(heapBudgetBytes, null);
+    }
+
+    /**
+     * Creates a renderer whose documents keep at most the given number of bytes of page
+     * content in memory, spilling the rest to scratch files in the given directory.
+     *
+     * @param heapBudgetBytes  the default heap budget per render, 0 for scratch files only,
+     *                         or {@link #UNLIMITED}
+     * @param scratchDirectory directory for scratch files, or null for the default temp directory
+     */
+    public PdfRenderer(long heapBudgetBytes, Path scratchDirectory) {
+        this(heapBudgetBytes, scratchDirectory, null, 0, DEFAULT_IDLE_FONT_SETS);
+    }
+
+    private PdfRenderer(long heapBudgetBytes, Path scratchDirectory, Executor pageExecutor, int pagesPerBatch,
+                        int idleFontSets) {
+        this.fontPool = new PdfFontPool(idleFontSets);
+        this.heapBudgetBytes = validateBudget(heapBudgetBytes);
+        this.scratchDirectory = scratchDirectory;
+        this.pageExecutor = pageExecutor;
+        this.pagesPerBatch = pagesPerBatch;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
     @Override
-    public RenderResult render(Template template) {
-        if (template.getSections().isEmpty()) {
-            throw new RenderException("Template must have at least one section for PDF rendering");
-        }
+    public RenderPass openPass(Template template, OutputStream out) {
+        return openPass(template, out, heapBudgetBytes);
+    }
 
-        byte[] pdfBytes = generatePdf(template);
-        return new RenderResult(pdfBytes, RenderFormat.PDF, template.getName());
+    /**
+     * Renders the template to the stream with the given heap budget for page content,
+     * overriding the renderer's default. The stream is flushed but not closed.
+     *
+     * @param template        the template to render
+     * @param out             the stream to write the PDF to
+     * @param heapBudgetBytes the heap budget for this render, 0 for scratch files only,
+     *                        or {@link #UNLIMITED}
+     * @throws RenderException if rendering or writing fails
+     */
+    public void render(Template template, OutputStream out, long heapBudgetBytes) {
+        RenderPass pass = openPass(template, out, validateBudget(heapBudgetBytes));
+        try {
+            RenderWalker.walk(template, List.of(pass));
+        } catch (IOException e) {
+            throw new RenderException("Failed to write PDF output", e);
+        }
     }
 
     @Override
@@ -49,124 +139,368 @@ public class PdfRenderer implements TemplateRenderer {
         return RenderFormat.PDF;
     }
 
-    private byte[] generatePdf(Template template) {
-        try (PDDocument document = new PDDocument()) {
-            PDType1Font regularFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
-            PDType1Font boldFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+    PdfFontPool fontPool() {
+        return fontPool;
+    }
 
-            float pageHeight = PDRectangle.A4.getHeight();
-            float pageWidth = PDRectangle.A4.getWidth();
-            float usableWidth = pageWidth - 2 * MARGIN;
-            float yStart = pageHeight - MARGIN;
+    private RenderPass openPass(Template template, OutputStream out, long budget) {
+        if (template.getSections().isEmpty()) {
+            throw new RenderException("Template must have at least one section for PDF rendering");
+        }
+        return new PdfPass(template.getName(), out, new PDDocument(streamCache(budget)), fontPool.acquire());
+    }
 
-            PDPage page = new PDPage(PDRectangle.A4);
-            document.addPage(page);
+    private RandomAccessStreamCache.StreamCacheCreateFunction streamCache(long budget) {
+        if (budget == UNLIMITED) {
+            return IOUtils.createMemoryOnlyStreamCache();
+        }
+        MemoryUsageSetting setting = budget == 0
+                ? MemoryUsageSetting.setupTempFileOnly()
+                : MemoryUsageSetting.setupMixed(budget);
+        if (scratchDirectory != null) {
+            setting.setTempDir(scratchDirectory.toFile());
+        }
+        return setting.streamCache;
+    }
+
+    private static long validateBudget(long heapBudgetBytes) {
+        if (heapBudgetBytes < 0 && heapBudgetBytes != UNLIMITED) {
+            throw new IllegalArgumentException("Heap budget must be non-negative or UNLIMITED: " + heapBudgetBytes);
+        }
+        return heapBudgetBytes;
+    }
+
+    private final class PdfPass implements RenderPass {
+
+        private final String templateName;
+        private final TextOutput output;
+        private final PDDocument document;
+        private final PdfFontPool.Fonts fonts;
+        private final PDType1Font regularFont;
+        private final PDType1Font boldFont;
+        private final float usableWidth = PDRectangle.A4.getWidth() - 2 * MARGIN;
+        private final float yStart = PDRectangle.A4.getHeight() - MARGIN;
+
+        private final int rowsPerPage = rowsPerPage(yStart);
+        private final List<String[]> pendingRows = new ArrayList<>();
+
+        private PDPageContentStream cs;
+        private PdfTextWriter text;
+        private float currentY;
+        private float colWidth;
+
+        PdfPass(String templateName, OutputStream out, PDDocument document, PdfFontPool.Fonts fonts) {
+            this.templateName = templateName;
+            this.output = new TextOutput(out);
+            this.document = document;
+            this.fonts = fonts;
+            this.regularFont = fonts.regular();
+            this.boldFont = fonts.bold();
+        }
+
+        @Override
+        public void heading(ResolvedText heading) throws IOException {
+            ensureSpace(HEADING_LEADING);
+            text.show(boldFont, HEADING_FONT_SIZE, MARGIN, currentY, heading.text());
+            currentY -= HEADING_LEADING;
+        }
+
+        @Override
+        public void paragraph(ResolvedText paragraph) throws IOException {
+            ensureSpace(BODY_LEADING);
+            text.show(regularFont, BODY_FONT_SIZE, MARGIN, currentY, paragraph.text());
+            currentY -= BODY_LEADING;
+        }
 
-            PDPageContentStream cs = new PDPageContentStream(document, page);
-            float currentY = yStart;
+        @Override
+        public boolean beginTable(TemplateSection.Table table) throws IOException {
+            int colCount = table.headers().size();
+            colWidth = usableWidth / colCount;
+
+            // Header row (bold)
+            ensureSpace(BODY_LEADING);
+            for (int i = 0; i < colCount; i++) {
+                text.show(boldFont, BODY_FONT_SIZE, MARGIN + i * colWidth, currentY, table.headers().get(i));
+            }
+            currentY -= BODY_LEADING;
+            return true;
+        }
+
+        @Override
+        public void row(ResolvedText[] cells) throws IOException {
+            if (pageExecutor != null && (!pendingRows.isEmpty() || currentY - BODY_LEADING < MARGIN)) {
+                bufferRow(cells);
+                return;
+            }
+            ensureSpace(BODY_LEADING);
+            for (int i = 0; i < cells.length; i++) {
+                text.show(regularFont, BODY_FONT_SIZE, MARGIN + i * colWidth, currentY, cells[i].text());
+            }
+            currentY -= BODY_LEADING;
+        }
+
+        @Override
+        public void endTable(TemplateSection.Table table) throws IOException {
+            if (pendingRows.isEmpty()) {
+                return;
+            }
+            int fullPages = pendingRows.size() / rowsPerPage;
+            if (fullPages > 0) {
+                buildPages(fullPages);
+            }
+            // The last, partial page stays open for the sections that follow
+            for (String[] cells : pendingRows) {
+                ensureSpace(BODY_LEADING);
+                for (int i = 0; i < cells.length; i++) {
+                    text.show(regularFont, BODY_FONT_SIZE, MARGIN + i * colWidth, currentY, cells[i]);
+                }
+                currentY -= BODY_LEADING;
+            }
+            pendingRows.clear();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (document.getNumberOfPages() == 0) {
+                ensureSpace(0);
+            }
+            closeContentStream();
+            RenderPhaseEvent event = RenderPhaseEvent.start();
+            // PDFBox closes the stream it saves to; keep the caller's stream open
+            NonClosingOutputStream saved = new NonClosingOutputStream(output);
+            document.save(saved);
+            output.finish();
+            event.complete(templateName, RenderFormat.PDF.name(), RenderPhaseEvent.SAVE, 0, saved.count);
+        }
 
+        @Override
+        public void close() throws IOException {
             try {
-                for (TemplateSection section : template.getSections()) {
-                    switch (section) {
-                        case TemplateSection.Heading h -> {
-                            String text = PlaceholderResolver.resolve(h.text(), template.getData());
-                            if (currentY - HEADING_LEADING < MARGIN) {
-                                cs.close();
-                                page = new PDPage(PDRectangle.A4);
-                                document.addPage(page);
-                                cs = new PDPageContentStream(document, page);
-                                currentY = yStart;
-                            }
-                            cs.beginText();
-                            cs.setFont(boldFont, HEADING_FONT_SIZE);
-                            cs.setLeading(HEADING_LEADING);
-                            cs.newLineAtOffset(MARGIN, currentY);
-                            cs.showText(text);
-                            cs.endText();
-                            currentY -= HEADING_LEADING;
-                        }
-                        case TemplateSection.Paragraph p -> {
-                            String text = PlaceholderResolver.resolve(p.text(), template.getData());
-                            if (currentY - BODY_LEADING < MARGIN) {
-                                cs.close();
-                                page = new PDPage(PDRectangle.A4);
-                                document.addPage(page);
-                                cs = new PDPageContentStream(document, page);
-                                currentY = yStart;
-                            }
-                            cs.beginText();
-                            cs.setFont(regularFont, BODY_FONT_SIZE);
-                            cs.setLeading(BODY_LEADING);
-                            cs.newLineAtOffset(MARGIN, currentY);
-                            cs.showText(text);
-                            cs.endText();
-                            currentY -= BODY_LEADING;
-                        }
-                        case TemplateSection.Table t -> {
-                            int colCount = t.headers().size();
-                            float colWidth = usableWidth / colCount;
-
-                            // Header row (bold)
-                            if (currentY - BODY_LEADING < MARGIN) {
-                                cs.close();
-                                page = new PDPage(PDRectangle.A4);
-                                document.addPage(page);
-                                cs = new PDPageContentStream(document, page);
-                                currentY = yStart;
-                            }
-                            for (int i = 0; i < colCount; i++) {
-                                cs.beginText();
-                                cs.setFont(boldFont, BODY_FONT_SIZE);
-                                cs.newLineAtOffset(MARGIN + i * colWidth, currentY);
-                                cs.showText(t.headers().get(i));
-                                cs.endText();
-                            }
-                            currentY -= BODY_LEADING;
-
-                            // Data rows
-                            List<Map<String, Object>> rows = extractRows(template);
-                            for (Map<String, Object> row : rows) {
-                                if (currentY - BODY_LEADING < MARGIN) {
-                                    cs.close();
-                                    page = new PDPage(PDRectangle.A4);
-                                    document.addPage(page);
-                                    cs = new PDPageContentStream(document, page);
-                                    currentY = yStart;
-                                }
-                                for (int i = 0; i < t.columns().size(); i++) {
-                                    String resolved = PlaceholderResolver.resolve(t.columns().get(i), row);
-                                    cs.beginText();
-                                    cs.setFont(regularFont, BODY_FONT_SIZE);
-                                    cs.newLineAtOffset(MARGIN + i * colWidth, currentY);
-                                    cs.showText(resolved);
-                                    cs.endText();
-                                }
-                                currentY -= BODY_LEADING;
-                            }
-                        }
-                    }
+                closeContentStream();
+            } finally {
+                try {
+                    document.close();
+                } finally {
+                    fontPool.release(fonts);
+                    output.release();
                 }
+            }
+        }
+
+        /**
+         * Buffers a row destined for a page after the current one. Cell texts are copied
+         * because the walker reuses them for the next row.
+         */
+        private void bufferRow(ResolvedText[] cells) throws IOException {
+            String[] texts = new String[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                texts[i] = cells[i].text();
+            }
+            pendingRows.add(texts);
+            if (pendingRows.size() == rowsPerPage * pagesPerBatch) {
+                buildPages(pagesPerBatch);
+            }
+        }
+
+        /**
+         * Builds the given number of full pages from the buffered rows on the page executor
+         * and appends them to the document in order. Any rows left over stay buffered.
+         */
+        private void buildPages(int pageCount) throws IOException {
+            List<CompletableFuture<Utf8Buffer>> pages = new ArrayList<>(pageCount);
+            for (int p = 0; p < pageCount; p++) {
+                List<String[]> rows = List.copyOf(pendingRows.subList(p * rowsPerPage, (p + 1) * rowsPerPage));
+                float width = colWidth;
+                pages.add(CompletableFuture.supplyAsync(() -> buildPage(rows, width), pageExecutor));
+            }
+            pendingRows.subList(0, pageCount * rowsPerPage).clear();
+
+            closeContentStream();
+            for (CompletableFuture<Utf8Buffer> page : pages) {
+                appendPage(join(page));
+            }
+        }
+
+        private Utf8Buffer buildPage(List<String[]> rows, float width) {
+            // Encoding fills per-font caches, so each worker encodes with fonts of its own
+            RenderPhaseEvent event = RenderPhaseEvent.start();
+            PdfFontPool.Fonts encodingFonts = fontPool.acquire();
+            try {
+                Utf8Buffer content = PdfPageBuilder.buildRows(rows, encodingFonts.regular(), TABLE_FONT_NAME.getName(),
+                        BODY_FONT_SIZE, MARGIN, width, yStart, BODY_LEADING);
+                event.complete(templateName, RenderFormat.PDF.name(), RenderPhaseEvent.PAGE_BUILD,
+                        rows.size(), content.length());
+                return content;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             } finally {
-                cs.close();
+                fontPool.release(encodingFonts);
             }
+        }
 
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            document.save(out);
-            return out.toByteArray();
-        } catch (IOException e) {
-            throw new RenderException("Failed to generate PDF", e);
+        private void appendPage(Utf8Buffer content) throws IOException {
+            PDPage page = new PDPage(PDRectangle.A4);
+            PDResources resources = new PDResources();
+            resources.put(TABLE_FONT_NAME, regularFont);
+            page.setResources(resources);
+            COSStream stream = document.getDocument().createCOSStream();
+            try (OutputStream raw = stream.createRawOutputStream()) {
+                content.writeTo(raw);
+            } finally {
+                BufferPool.shared().release(content);
+            }
+            stream.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+            page.getCOSObject().setItem(COSName.CONTENTS, stream);
+            document.addPage(page);
+        }
+
+        /**
+         * Starts a new page if the current one cannot fit a line of the given height.
+         */
+        private void ensureSpace(float leading) throws IOException {
+            if (cs == null || currentY - leading < MARGIN) {
+                closeContentStream();
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                cs = new PDPageContentStream(document, page);
+                text = new PdfTextWriter(cs);
+                currentY = yStart;
+            }
+        }
+
+        private void closeContentStream() throws IOException {
+            if (cs != null) {
+                PDPageContentStream current = cs;
+                PdfTextWriter currentText = text;
+                cs = null;
+                text = null;
+                try {
+                    currentText.end();
+                } finally {
+                    current.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns how many body rows fit on a fresh page, using the same arithmetic as the
+     * sequential layout so that both paths break pages at the same rows.
+     */
+    private static int rowsPerPage(float yStart) {
+        int rows = 0;
+        for (float y = yStart; y - BODY_LEADING >= MARGIN; y -= BODY_LEADING) {
+            rows++;
+        }
+        return rows;
+    }
+
+    private static Utf8Buffer join(CompletableFuture<Utf8Buffer> page) throws IOException {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Builder for {@link PdfRenderer} instances with non-default options.
+     */
+    public static final class Builder {
+
+        private long heapBudgetBytes = UNLIMITED;
+        private Path scratchDirectory;
+        private Executor pageExecutor;
+        private int pagesPerBatch = Runtime.getRuntime().availableProcessors() * 2;
+        private int idleFontSets = DEFAULT_IDLE_FONT_SETS;
+
+        private Builder() {}
+
+        /**
+         * Sets the heap budget for page content, 0 for scratch files only, or {@link #UNLIMITED}.
+         */
+        public Builder heapBudget(long heapBudgetBytes) {
+            this.heapBudgetBytes = validateBudget(heapBudgetBytes);
+            return this;
+        }
+
+        /**
+         * Sets the directory for scratch files, or null for the default temp directory.
+         */
+        public Builder scratchDirectory(Path scratchDirectory) {
+            this.scratchDirectory = scratchDirectory;
+            return this;
+        }
+
+        /**
+         * Builds the pages of large tables on the given executor, e.g. a
+         * {@link java.util.concurrent.ForkJoinPool} or a virtual-thread executor.
+         * A null executor keeps the sequential layout.
+         */
+        public Builder parallelPages(Executor pageExecutor) {
+            this.pageExecutor = pageExecutor;
+            return this;
+        }
+
+        /**
+         * Sets how many full pages of rows are buffered before they are built in parallel.
+         * Larger batches keep more workers busy at the cost of holding more rows in memory.
+         */
+        public Builder pagesPerBatch(int pagesPerBatch) {
+            if (pagesPerBatch < 1) {
+                throw new IllegalArgumentException("Pages per batch must be positive: " + pagesPerBatch);
+            }
+            this.pagesPerBatch = pagesPerBatch;
+            return this;
+        }
+
+        /**
+         * Sets how many font sets are kept for reuse by later documents, two per processor by
+         * default. 0 builds new fonts for every document.
+         */
+        public Builder idleFontSets(int idleFontSets) {
+            if (idleFontSets < 0) {
+                throw new IllegalArgumentException("Idle font sets must not be negative: " + idleFontSets);
+            }
+            this.idleFontSets = idleFontSets;
+            return this;
+        }
+
+        public PdfRenderer build() {
+            return new PdfRenderer(heapBudgetBytes, scratchDirectory, pageExecutor, pagesPerBatch, idleFontSets);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> extractRows(Template template) {
-        Object rowsData = template.getData("rows");
-        if (rowsData instanceof List<?> rows) {
-            return rows.stream()
-                    .filter(r -> r instanceof Map)
-                    .map(r -> (Map<String, Object>) r)
-                    .toList();
+    /**
+     * Collects PDFBox's many small writes in the pass's pooled output buffer. Closing it does
+     * not close the caller's stream.
+     */
+    private static final class NonClosingOutputStream extends OutputStream {
+
+        private final TextOutput output;
+        private long count;
+
+        NonClosingOutputStream(TextOutput output) {
+            this.output = output;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            output.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            output.write(b, off, len);
+            count += len;
         }
-        return List.of(template.getData());
     }
 }
@@ -0,0 +1,62 @@
+package com.rendertemplate.renderer;
+
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.io.IOException;
+
+/**
+ * Emits positioned text into a page content stream using a single text object.
+ *
+ * <p>The text object is opened on the first call and kept open until {@link #end()}, the font
+ * operator is only written when the font or size actually changes, and every position is
+ * written as a {@code Td} offset relative to the previous line. Compared to one
+ * {@code BT ... Tf ... Td ... Tj ... ET} block per cell this keeps content streams much
+ * smaller for wide tables.</p>
+ */
+final class PdfTextWriter {
+
+    private final PDPageContentStream cs;
+    private boolean inText;
+    private PDFont currentFont;
+    private float currentSize;
+    private float lineX;
+    private float lineY;
+
+    PdfTextWriter(PDPageContentStream cs) {
+        this.cs = cs;
+    }
+
+    /**
+     * Shows the text with its baseline starting at the given absolute page position.
+     */
+    void show(PDFont font, float size, float x, float y, String text) throws IOException {
+        if (!inText) {
+            cs.beginText();
+            inText = true;
+            lineX = 0;
+            lineY = 0;
+        }
+        if (font != currentFont || size != currentSize) {
+            cs.setFont(font, size);
+            currentFont = font;
+            currentSize = size;
+        }
+        cs.newLineAtOffset(x - lineX, y - lineY);
+        lineX = x;
+        lineY = y;
+        cs.showText(text);
+    }
+
+    /**
+     * Closes the text object, if one is open. Font state is reset, as it does not carry over
+     * to the next text object.
+     */
+    void end() throws IOException {
+        if (inText) {
+            cs.endText();
+            inText = false;
+            currentFont = null;
+        }
+    }
+}
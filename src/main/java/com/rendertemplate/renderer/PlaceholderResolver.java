@@ -1,17 +1,26 @@
 package com.rendertemplate.renderer;
 
+import java.util.Locale;
 import java.util.Map;
 import java.util.function.UnaryOperator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Utility for resolving {@code {{placeholder}}} expressions in template text.
+ *
+ * <p>Renderers that resolve the same text many times (e.g. table columns, once per row)
+ * should {@linkplain CompiledText#compile(String) compile} it once and reuse the result.
+ * Table rows given as {@link com.rendertemplate.model.IndexedRow}s are resolved without key
+ * lookups: each placeholder is bound to its schema slot once per table with
+ * {@link ResolvedText#columnsIn}, and every row is then read by slot.</p>
+ *
+ * <p>Placeholders may name a format, as in {@code {{amount:currency}}} or
+ * {@code {{date:yyyy-MM-dd}}}. Values are formatted only as they are written, by a format
+ * parsed once per directive and locale and shared across threads; see
+ * {@link com.rendertemplate.format.ValueFormat#directive}. Data can therefore hold the raw
+ * numbers and dates instead of strings formatted up front.</p>
  */
 public final class PlaceholderResolver {
 
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{\\{(\\w+)}}");
-
     private PlaceholderResolver() {}
 
     /**
@@ -24,22 +33,25 @@ public final class PlaceholderResolver {
      * @return the text with placeholders replaced
      */
     public static String resolve(String text, Map<String, Object> data, UnaryOperator<String> escaper) {
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(text);
-        StringBuilder sb = new StringBuilder();
-        while (matcher.find()) {
-            String key = matcher.group(1);
-            Object value = data.getOrDefault(key, "");
-            String replacement = escaper.apply(String.valueOf(value));
-            matcher.appendReplacement(sb, Matcher.quoteReplacement(replacement));
-        }
-        matcher.appendTail(sb);
-        return sb.toString();
+        return CompiledText.compile(text).resolve(data, Escaper.of(escaper));
     }
 
     /**
      * Replaces placeholders without any escaping.
      */
     public static String resolve(String text, Map<String, Object> data) {
-        return resolve(text, data, UnaryOperator.identity());
+        return CompiledText.compile(text).resolve(data);
+    }
+
+    /**
+     * Replaces placeholders without any escaping, applying format directives for the locale.
+     *
+     * @param text   the text containing placeholders
+     * @param data   the data map for substitution
+     * @param locale the locale for format directives
+     * @return the text with placeholders replaced
+     */
+    public static String resolve(String text, Map<String, Object> data, Locale locale) {
+        return CompiledText.compile(text).resolve(data, Escaper.none(), locale);
     }
 }
@@ -0,0 +1,44 @@
+package com.rendertemplate.renderer;
+
+import com.rendertemplate.model.TemplateSection;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * One output format's view of a single walk over a template, driven by {@link RenderWalker}.
+ *
+ * <p>The walker resolves every placeholder once and hands the same {@link ResolvedText}
+ * instances to all passes, so several formats can be produced from one traversal of the
+ * sections and rows. Resolved texts are reused between calls and must not be retained.</p>
+ */
+public interface RenderPass extends Closeable {
+
+    void heading(ResolvedText text) throws IOException;
+
+    void paragraph(ResolvedText text) throws IOException;
+
+    /**
+     * Starts a table section.
+     *
+     * @param table the table section
+     * @return true to receive the table's rows, false to skip the table
+     */
+    boolean beginTable(TemplateSection.Table table) throws IOException;
+
+    void row(ResolvedText[] cells) throws IOException;
+
+    void endTable(TemplateSection.Table table) throws IOException;
+
+    /**
+     * Completes the output after the last section.
+     */
+    void finish() throws IOException;
+
+    /**
+     * Releases resources held by the pass. Called after {@link #finish()} or after a failure.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
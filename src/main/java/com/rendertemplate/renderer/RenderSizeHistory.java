@@ -0,0 +1,151 @@
+package com.rendertemplate.renderer;
+
+import com.rendertemplate.model.RenderFormat;
+import com.rendertemplate.model.Template;
+import com.rendertemplate.model.TemplateSection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Output size statistics per template name and format, used to presize render buffers.
+ *
+ * <p>Each render records its row count and output size. The history keeps exponentially
+ * weighted averages of both and fits a fixed overhead plus a per-row size, so the estimate
+ * for the next render follows the template's actual output as it drifts. Templates without
+ * history are estimated from their row and column counts.</p>
+ *
+ * <p>The history is bounded: the least recently used entries are dropped once
+ * {@code maxEntries} templates are tracked. Instances are thread-safe.</p>
+ */
+public final class RenderSizeHistory {
+
+    static final int DEFAULT_MAX_ENTRIES = 1024;
+    static final int FALLBACK_BYTES_PER_CELL = 24;
+    static final int FALLBACK_OVERHEAD = 256;
+    private static final double WEIGHT = 0.2;
+
+    private static final RenderSizeHistory SHARED = new RenderSizeHistory(DEFAULT_MAX_ENTRIES);
+
+    private final Map<String, Stats> entries;
+
+    public RenderSizeHistory(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be positive: " + maxEntries);
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Stats> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the history shared by the built-in renderers.
+     */
+    public static RenderSizeHistory shared() {
+        return SHARED;
+    }
+
+    /**
+     * Estimates the output size of the next render of the template in the format.
+     *
+     * @return the estimated size in bytes, or 0 if there is nothing to base an estimate on
+     */
+    public long estimate(Template template, RenderFormat format) {
+        int rows = template.knownRowCount();
+        Stats stats;
+        synchronized (entries) {
+            stats = entries.get(key(template, format));
+        }
+        if (stats != null) {
+            return stats.estimate(rows);
+        }
+        if (rows < 0) {
+            return 0;
+        }
+        int cells = 0;
+        for (TemplateSection section : template.getSections()) {
+            if (section instanceof TemplateSection.Table table) {
+                cells += table.columns().size();
+            }
+        }
+        return FALLBACK_OVERHEAD + (long) rows * cells * FALLBACK_BYTES_PER_CELL;
+    }
+
+    /**
+     * Records the outcome of a render.
+     *
+     * @param rows  the number of table rows rendered
+     * @param bytes the output size in bytes
+     */
+    public void record(Template template, RenderFormat format, long rows, long bytes) {
+        Stats stats;
+        synchronized (entries) {
+            stats = entries.computeIfAbsent(key(template, format), k -> new Stats());
+        }
+        stats.add(rows, bytes);
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String key(Template template, RenderFormat format) {
+        return format.name() + ':' + template.getName();
+    }
+
+    /**
+     * Exponentially weighted moments of (rows, bytes), enough for a least-squares line.
+     */
+    private static final class Stats {
+
+        private boolean empty = true;
+        private double meanRows;
+        private double meanBytes;
+        private double meanRowsSquared;
+        private double meanRowsBytes;
+
+        synchronized void add(long rows, long bytes) {
+            double x = rows;
+            double y = bytes;
+            if (empty) {
+                meanRows = x;
+                meanBytes = y;
+                meanRowsSquared = x * x;
+                meanRowsBytes = x * y;
+                empty = false;
+            } else {
+                meanRows += WEIGHT * (x - meanRows);
+                meanBytes += WEIGHT * (y - meanBytes);
+                meanRowsSquared += WEIGHT * (x * x - meanRowsSquared);
+                meanRowsBytes += WEIGHT * (x * y - meanRowsBytes);
+            }
+        }
+
+        synchronized long estimate(int rows) {
+            if (rows < 0 || rows == meanRows) {
+                return Math.round(meanBytes);
+            }
+            double variance = meanRowsSquared - meanRows * meanRows;
+            double perRow;
+            double overhead;
+            if (variance > 1e-6 * (meanRowsSquared + 1)) {
+                perRow = (meanRowsBytes - meanRows * meanBytes) / variance;
+                overhead = meanBytes - perRow * meanRows;
+            } else {
+                perRow = -1;
+                overhead = -1;
+            }
+            if (perRow < 0 || overhead < 0) {
+                // Too little spread in row counts to fit a line; scale the average size
+                perRow = meanRows > 0 ? meanBytes / meanRows : 0;
+                overhead = meanRows > 0 ? 0 : meanBytes;
+            }
+            return Math.max(0, Math.round(overhead + perRow * rows));
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.rendertemplate.renderer;
+
+import com.rendertemplate.format.ValueFormat;
+import com.rendertemplate.jfr.TableRenderEvent;
+import com.rendertemplate.model.ColumnarRows;
+import com.rendertemplate.model.IndexedRow;
+import com.rendertemplate.model.RowSchema;
+import com.rendertemplate.model.RowSource;
+import com.rendertemplate.model.Template;
+import com.rendertemplate.model.TemplateSection;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Walks a template's sections and rows once, resolving every placeholder a single time and
+ * feeding the resolved text to each {@link RenderPass}.
+ */
+public final class RenderWalker {
+
+    private RenderWalker() {}
+
+    /**
+     * Drives the passes over the template, then finishes and closes them. Passes are closed
+     * even if rendering fails.
+     *
+     * @param template the template to render
+     * @param passes   the passes to feed
+     * @return the number of table rows walked, over all tables
+     * @throws IOException if a pass fails to write its output
+     */
+    public static long walk(Template template, List<? extends RenderPass> passes) throws IOException {
+        Throwable failure = null;
+        long rows = 0;
+        try {
+            Map<String, Object> data = template.getData();
+            Map<String, ValueFormat> formats = template.getFormats();
+            Locale locale = template.getLocale();
+            for (TemplateSection section : template.getSections()) {
+                switch (section) {
+                    case TemplateSection.Heading h -> {
+                        ResolvedText text = new ResolvedText(CompiledText.compile(h.text()), formats, locale).bind(data);
+                        for (RenderPass pass : passes) {
+                            pass.heading(text);
+                        }
+                    }
+                    case TemplateSection.Paragraph p -> {
+                        ResolvedText text = new ResolvedText(CompiledText.compile(p.text()), formats, locale).bind(data);
+                        for (RenderPass pass : passes) {
+                            pass.paragraph(text);
+                        }
+                    }
+                    case TemplateSection.Table t -> rows += walkTable(template, t, passes);
+                }
+            }
+            for (RenderPass pass : passes) {
+                pass.finish();
+            }
+            return rows;
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            closeAll(passes, failure);
+        }
+    }
+
+    /**
+     * Closes every pass. Close failures are added as suppressed exceptions to {@code failure}
+     * if there is one, and otherwise the first of them is thrown.
+     *
+     * @param passes  the passes to close
+     * @param failure the exception that ended rendering, or null
+     * @throws IOException if closing failed and there was no earlier failure
+     */
+    public static void closeAll(List<? extends RenderPass> passes, Throwable failure) throws IOException {
+        IOException closeFailure = null;
+        for (RenderPass pass : passes) {
+            try {
+                pass.close();
+            } catch (IOException e) {
+                if (failure != null) {
+                    failure.addSuppressed(e);
+                } else if (closeFailure == null) {
+                    closeFailure = e;
+                } else {
+                    closeFailure.addSuppressed(e);
+                }
+            }
+        }
+        if (closeFailure != null) {
+            throw closeFailure;
+        }
+    }
+
+    private static long walkTable(Template template, TemplateSection.Table table,
+                                  List<? extends RenderPass> passes) throws IOException {
+        List<RenderPass> active = new ArrayList<>(passes.size());
+        for (RenderPass pass : passes) {
+            if (pass.beginTable(table)) {
+                active.add(pass);
+            }
+        }
+        if (active.isEmpty()) {
+            return 0;
+        }
+
+        TableRenderEvent event = TableRenderEvent.start();
+        ResolvedText[] cells = ResolvedText.of(CompiledText.compileAll(table.columns()), template.getFormats(),
+                template.getLocale());
+        RowCursor cursor = RowCursor.over(template.getRows(), cells);
+        if (event.isEnabled()) {
+            return walkRowsTimed(template, table, cells, cursor, active, event);
+        }
+
+        long rows = 0;
+        while (cursor.next()) {
+            rows++;
+            cursor.bind(cells);
+            for (RenderPass pass : active) {
+                pass.row(cells);
+            }
+        }
+
+        for (RenderPass pass : active) {
+            pass.endTable(table);
+        }
+        return rows;
+    }
+
+    /**
+     * Same walk as {@link #walkTable}, timing row extraction, placeholder resolution and the
+     * passes' output separately for the flight recorder.
+     */
+    private static long walkRowsTimed(Template template, TemplateSection.Table table, ResolvedText[] cells,
+                                      RowCursor cursor, List<RenderPass> active,
+                                      TableRenderEvent event) throws IOException {
+        long rows = 0;
+        long extraction = 0;
+        long resolution = 0;
+        long output = 0;
+        long t0 = System.nanoTime();
+        while (cursor.next()) {
+            rows++;
+            long t1 = System.nanoTime();
+            cursor.bind(cells);
+            long t2 = System.nanoTime();
+            for (RenderPass pass : active) {
+                pass.row(cells);
+            }
+            long t3 = System.nanoTime();
+            extraction += t1 - t0;
+            resolution += t2 - t1;
+            output += t3 - t2;
+            t0 = t3;
+        }
+        extraction += System.nanoTime() - t0;
+        long end = System.nanoTime();
+        for (RenderPass pass : active) {
+            pass.endTable(table);
+        }
+        output += System.nanoTime() - end;
+        event.complete(template.getName(), cells.length, rows, extraction, resolution, output);
+        return rows;
+    }
+
+    /**
+     * Steps through the rows of a table and binds the cells to the current row. Columnar and
+     * indexed rows are read by index, with each placeholder's column looked up once per table.
+     */
+    private abstract static class RowCursor {
+
+        static RowCursor over(RowSource rows, ResolvedText[] cells) {
+            if (rows instanceof ColumnarRows columnar) {
+                int[][] columns = new int[cells.length][];
+                for (int i = 0; i < cells.length; i++) {
+                    columns[i] = cells[i].columnsIn(columnar.schema());
+                }
+                return new ColumnarCursor(columnar, columns);
+            }
+            return new MapCursor(rows.iterator());
+        }
+
+        abstract boolean next();
+
+        abstract void bind(ResolvedText[] cells);
+    }
+
+    /**
+     * Cursor over map rows. {@link IndexedRow}s are bound by slot, with the slots looked up
+     * again only when a row has a different schema from the one before.
+     */
+    private static final class MapCursor extends RowCursor {
+
+        private final Iterator<Map<String, Object>> rows;
+        private Map<String, Object> row;
+        private RowSchema schema;
+        private int[][] slots;
+
+        MapCursor(Iterator<Map<String, Object>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        boolean next() {
+            if (!rows.hasNext()) {
+                return false;
+            }
+            row = rows.next();
+            return true;
+        }
+
+        @Override
+        void bind(ResolvedText[] cells) {
+            if (row instanceof IndexedRow indexed) {
+                if (indexed.schema() != schema) {
+                    schema = indexed.schema();
+                    slots = new int[cells.length][];
+                    for (int i = 0; i < cells.length; i++) {
+                        slots[i] = cells[i].columnsIn(schema);
+                    }
+                }
+                for (int i = 0; i < cells.length; i++) {
+                    cells[i].bind(indexed, slots[i]);
+                }
+                return;
+            }
+            for (ResolvedText cell : cells) {
+                cell.bind(row);
+            }
+        }
+    }
+
+    private static final class ColumnarCursor extends RowCursor {
+
+        private final ColumnarRows rows;
+        private final int[][] columns;
+        private int row = -1;
+
+        ColumnarCursor(ColumnarRows rows, int[][] columns) {
+            this.rows = rows;
+            this.columns = columns;
+        }
+
+        @Override
+        boolean next() {
+            return ++row < rows.size();
+        }
+
+        @Override
+        void bind(ResolvedText[] cells) {
+            for (int i = 0; i < cells.length; i++) {
+                cells[i].bind(rows, row, columns[i]);
+            }
+        }
+    }
+}
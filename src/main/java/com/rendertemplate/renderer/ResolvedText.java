@@ -0,0 +1,341 @@
+package com.rendertemplate.renderer;
+
+import com.rendertemplate.format.ValueFormat;
+import com.rendertemplate.model.ColumnarRows;
+import com.rendertemplate.model.IndexedRow;
+import com.rendertemplate.model.RowSchema;
+
+import java.time.DateTimeException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A {@link CompiledText} bound to the values of one data map. Values are looked up once by
+ * {@link #bind(Map)} and can then be written by any number of output formats, each with its
+ * own escaping.
+ *
+ * <p>Values are kept as they are, and primitives from {@link ColumnarRows} unboxed, until
+ * they are written. Each is then formatted by its placeholder's {@link ValueFormat}, taken
+ * from its directive or its key's configured format, into a reused buffer and escaped from
+ * there, so writing a number or date creates no string.</p>
+ *
+ * <p>Instances are mutable and meant to be reused across rows: bind, hand to the render
+ * passes, bind again. They are not thread-safe.</p>
+ */
+public final class ResolvedText {
+
+    private static final ValueFormat STANDARD = ValueFormat.standard();
+
+    private static final byte OBJECT = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+
+    private final CompiledText compiled;
+    private final ValueFormat[] formats;
+    private final byte[] kinds;
+    private final Object[] values;
+    private final long[] longs;
+    private final double[] doubles;
+    private StringBuilder scratch;
+    private StringBuilder joined;
+    private String text;
+
+    public ResolvedText(CompiledText compiled) {
+        this(compiled, Map.of());
+    }
+
+    /**
+     * Creates a resolved text whose values are written with the formats configured for their
+     * placeholder keys.
+     *
+     * @param compiled the compiled text
+     * @param formats  the value format per placeholder key; other keys use {@link ValueFormat#standard()}
+     */
+    public ResolvedText(CompiledText compiled, Map<String, ValueFormat> formats) {
+        this(compiled, formats, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Creates a resolved text whose values are written with their placeholder's format
+     * directive for the locale, or else the format configured for their key.
+     *
+     * @param compiled the compiled text
+     * @param formats  the value format per placeholder key; other keys use {@link ValueFormat#standard()}
+     * @param locale   the locale for format directives
+     * @throws RenderException if a placeholder has an invalid format directive
+     */
+    public ResolvedText(CompiledText compiled, Map<String, ValueFormat> formats, Locale locale) {
+        String[] keys = compiled.keys();
+        this.compiled = compiled;
+        this.formats = compiled.formats(formats, locale);
+        this.kinds = new byte[keys.length];
+        this.values = new Object[keys.length];
+        this.longs = new long[keys.length];
+        this.doubles = new double[keys.length];
+    }
+
+    private ResolvedText(ResolvedText source) {
+        this.compiled = source.compiled;
+        this.formats = source.formats;
+        this.kinds = source.kinds.clone();
+        this.values = source.values.clone();
+        this.longs = source.longs.clone();
+        this.doubles = source.doubles.clone();
+        this.text = source.text;
+    }
+
+    /**
+     * Creates one resolved text per compiled text.
+     */
+    public static ResolvedText[] of(CompiledText[] compiled) {
+        return of(compiled, Map.of());
+    }
+
+    /**
+     * Creates one resolved text per compiled text, writing values with the given formats.
+     */
+    public static ResolvedText[] of(CompiledText[] compiled, Map<String, ValueFormat> formats) {
+        return of(compiled, formats, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Creates one resolved text per compiled text, writing values with the given formats and
+     * format directives for the locale.
+     */
+    public static ResolvedText[] of(CompiledText[] compiled, Map<String, ValueFormat> formats, Locale locale) {
+        ResolvedText[] resolved = new ResolvedText[compiled.length];
+        for (int i = 0; i < compiled.length; i++) {
+            resolved[i] = new ResolvedText(compiled[i], formats, locale);
+        }
+        return resolved;
+    }
+
+    /**
+     * Looks up the placeholder values in the data map. Missing keys resolve to an empty string.
+     *
+     * @param data the data map for substitution
+     * @return this instance
+     */
+    public ResolvedText bind(Map<String, Object> data) {
+        String[] keys = compiled.keys();
+        for (int i = 0; i < keys.length; i++) {
+            kinds[i] = OBJECT;
+            values[i] = data.getOrDefault(keys[i], "");
+        }
+        text = null;
+        return this;
+    }
+
+    /**
+     * Reads the placeholder values from one row of a columnar row set. Keys the schema does
+     * not have resolve to an empty string.
+     *
+     * @param rows    the row set
+     * @param row     the row index
+     * @param columns the column index of each placeholder key, or -1, as given by
+     *                {@link #columnsIn(RowSchema)}
+     * @return this instance
+     */
+    public ResolvedText bind(ColumnarRows rows, int row, int[] columns) {
+        for (int i = 0; i < columns.length; i++) {
+            int column = columns[i];
+            if (column < 0) {
+                kinds[i] = OBJECT;
+                values[i] = "";
+                continue;
+            }
+            switch (rows.columnType(column)) {
+                case INT -> bindLong(i, rows.getInt(column, row));
+                case LONG -> bindLong(i, rows.getLong(column, row));
+                case DOUBLE -> {
+                    kinds[i] = DOUBLE;
+                    doubles[i] = rows.getDouble(column, row);
+                }
+                case STRING -> {
+                    kinds[i] = OBJECT;
+                    values[i] = rows.getString(column, row);
+                }
+            }
+        }
+        text = null;
+        return this;
+    }
+
+    /**
+     * Reads the placeholder values from the slots of an indexed row. Keys the schema does not
+     * have, and null values, resolve to an empty string.
+     *
+     * @param row   the row
+     * @param slots the slot of each placeholder key, or -1, as given by {@link #columnsIn(RowSchema)}
+     * @return this instance
+     */
+    public ResolvedText bind(IndexedRow row, int[] slots) {
+        for (int i = 0; i < slots.length; i++) {
+            Object value = slots[i] < 0 ? null : row.get(slots[i]);
+            kinds[i] = OBJECT;
+            values[i] = value == null ? "" : value;
+        }
+        text = null;
+        return this;
+    }
+
+    /**
+     * Returns the schema index of each placeholder key, with -1 for keys the schema does not
+     * have. Looked up once per table, then passed to every bind.
+     */
+    public int[] columnsIn(RowSchema schema) {
+        return schema.indexesOf(compiled.keys());
+    }
+
+    /**
+     * Returns a copy holding the currently bound values, unaffected by later binds. Used to
+     * hand a row to another thread.
+     */
+    public ResolvedText copy() {
+        return new ResolvedText(this);
+    }
+
+    /**
+     * Appends the text to the builder, escaping the substituted values but not the literals.
+     *
+     * @param out     the builder to append to
+     * @param escaper the escaper applied to each value
+     */
+    public void appendTo(StringBuilder out, Escaper escaper) {
+        String[] literals = compiled.literals();
+        out.append(literals[0]);
+        for (int i = 0; i < kinds.length; i++) {
+            if (isPlainString(i)) {
+                escaper.escapeTo((String) values[i], out);
+            } else {
+                escaper.escapeTo(format(i), out);
+            }
+            out.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Appends the text to the byte buffer, escaping the substituted values but not the literals.
+     *
+     * @param out     the buffer to append to
+     * @param escaper the escaper applied to each value
+     */
+    public void appendTo(Utf8Buffer out, Escaper escaper) {
+        String[] literals = compiled.literals();
+        out.append(literals[0]);
+        for (int i = 0; i < kinds.length; i++) {
+            appendValueTo(i, out, escaper);
+            out.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Appends the whole text to the byte buffer, literals included, escaped as one value. Used
+     * by formats that escape a complete cell. A lone formatted value is escaped straight from
+     * the format buffer and a mixed text from a reused buffer, so neither creates a string.
+     *
+     * @param out     the buffer to append to
+     * @param escaper the escaper applied to the text
+     */
+    public void appendEscapedTo(Utf8Buffer out, Escaper escaper) {
+        String[] literals = compiled.literals();
+        if (text != null) {
+            escaper.escapeTo(text, out);
+        } else if (kinds.length == 0) {
+            escaper.escapeTo(literals[0], out);
+        } else if (kinds.length == 1 && literals[0].isEmpty() && literals[1].isEmpty()) {
+            appendValueTo(0, out, escaper);
+        } else {
+            StringBuilder sb = joined;
+            if (sb == null) {
+                sb = joined = new StringBuilder(compiled.source().length() + 16 * kinds.length);
+            } else {
+                sb.setLength(0);
+            }
+            appendTo(sb, Escaper.none());
+            escaper.escapeTo(sb, out);
+        }
+    }
+
+    /**
+     * Returns the number of placeholder values, one per placeholder in the text.
+     */
+    public int valueCount() {
+        return kinds.length;
+    }
+
+    /**
+     * Appends one placeholder value to the byte buffer, formatted and escaped, without the
+     * literals around it. Used by renderers that write the literals from pre-encoded fragments.
+     *
+     * @param i       the placeholder index, in order of appearance
+     * @param out     the buffer to append to
+     * @param escaper the escaper applied to the value
+     */
+    public void appendValueTo(int i, Utf8Buffer out, Escaper escaper) {
+        if (isPlainString(i)) {
+            escaper.escapeTo((String) values[i], out);
+        } else {
+            escaper.escapeTo(format(i), out);
+        }
+    }
+
+    /**
+     * Returns the resolved text without escaping. The string is built on first use and shared
+     * by all callers until the next {@link #bind(Map)}.
+     */
+    public String text() {
+        if (text == null) {
+            String[] literals = compiled.literals();
+            if (kinds.length == 0) {
+                text = literals[0];
+            } else if (kinds.length == 1 && literals[0].isEmpty() && literals[1].isEmpty()) {
+                text = isPlainString(0) ? (String) values[0] : format(0).toString();
+            } else {
+                StringBuilder sb = new StringBuilder(compiled.source().length() + 16 * kinds.length);
+                appendTo(sb, Escaper.none());
+                text = sb.toString();
+            }
+        }
+        return text;
+    }
+
+    private void bindLong(int i, long value) {
+        kinds[i] = LONG;
+        longs[i] = value;
+    }
+
+    /**
+     * Returns true if the value is a string written as is, needing no formatting.
+     */
+    private boolean isPlainString(int i) {
+        return kinds[i] == OBJECT && values[i] instanceof String && formats[i] == STANDARD;
+    }
+
+    /**
+     * Formats the value into the scratch buffer, which is overwritten by the next call.
+     */
+    private StringBuilder format(int i) {
+        StringBuilder sb = scratch;
+        if (sb == null) {
+            sb = scratch = new StringBuilder(32);
+        } else {
+            sb.setLength(0);
+        }
+        try {
+            switch (kinds[i]) {
+                case LONG -> formats[i].formatTo(longs[i], sb);
+                case DOUBLE -> formats[i].formatTo(doubles[i], sb);
+                default -> formats[i].formatTo(values[i], sb);
+            }
+        } catch (DateTimeException e) {
+            throw compiled.formatFailure(i, e);
+        }
+        return sb;
+    }
+
+    @Override
+    public String toString() {
+        return text();
+    }
+}
@@ -0,0 +1,139 @@
+package com.rendertemplate.renderer;
+
+import com.rendertemplate.jfr.RenderPhaseEvent;
+import com.rendertemplate.model.RenderFormat;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Renders table rows in blocks on a {@link java.util.concurrent.ForkJoinPool} for the text
+ * renderers. Rows are copied into the current block as the walker delivers them; full blocks
+ * are rendered to UTF-8 chunks concurrently and written to the {@link TextOutput} in order.
+ * At most two blocks per pool thread are in flight, so memory stays bounded however large
+ * the table is. Chunk buffers come from the shared {@link BufferPool} and go back once written.
+ *
+ * <p>The row format must be safe to call from several threads at once.</p>
+ */
+final class RowBlockWriter {
+
+    /**
+     * Appends one row of a table in the output format.
+     */
+    @FunctionalInterface
+    interface RowFormat {
+        void appendRow(Utf8Buffer out, ResolvedText[] cells);
+    }
+
+    private final String templateName;
+    private final RenderFormat renderFormat;
+    private final ParallelRowOptions options;
+    private final TextOutput output;
+    private final RowFormat format;
+    private final int maxInFlight;
+    private final ArrayDeque<CompletableFuture<Utf8Buffer>> inFlight = new ArrayDeque<>();
+
+    private List<ResolvedText[]> block;
+    private long tableRows;
+    private volatile int lastChunkSize;
+
+    RowBlockWriter(String templateName, RenderFormat renderFormat, ParallelRowOptions options,
+                   TextOutput output, RowFormat format) {
+        this.templateName = templateName;
+        this.renderFormat = renderFormat;
+        this.options = options;
+        this.output = output;
+        this.format = format;
+        this.maxInFlight = options.pool().getParallelism() * 2;
+    }
+
+    /**
+     * Takes the row into the current block once the table has passed the row threshold.
+     *
+     * @return false if the row is below the threshold and should be rendered by the caller
+     */
+    boolean offer(ResolvedText[] cells) throws IOException {
+        if (tableRows++ < options.rowThreshold()) {
+            return false;
+        }
+        if (block == null) {
+            block = new ArrayList<>(options.blockRows());
+        }
+        ResolvedText[] copy = new ResolvedText[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            copy[i] = cells[i].copy();
+        }
+        block.add(copy);
+        if (block.size() == options.blockRows()) {
+            submit();
+        }
+        return true;
+    }
+
+    /**
+     * Writes every outstanding block and resets the row count for the next table.
+     */
+    void endTable() throws IOException {
+        if (block != null) {
+            submit();
+        }
+        while (!inFlight.isEmpty()) {
+            writeChunk(inFlight.poll());
+        }
+        tableRows = 0;
+    }
+
+    /**
+     * Abandons outstanding blocks after a failure.
+     */
+    void cancel() {
+        for (CompletableFuture<Utf8Buffer> chunk : inFlight) {
+            chunk.cancel(false);
+        }
+        inFlight.clear();
+        block = null;
+    }
+
+    private void submit() throws IOException {
+        List<ResolvedText[]> rows = block;
+        block = null;
+        inFlight.add(CompletableFuture.supplyAsync(() -> render(rows), options.pool()));
+        while (inFlight.size() > maxInFlight) {
+            writeChunk(inFlight.poll());
+        }
+    }
+
+    private void writeChunk(CompletableFuture<Utf8Buffer> pending) throws IOException {
+        Utf8Buffer chunk = join(pending);
+        output.write(chunk);
+        BufferPool.shared().release(chunk);
+    }
+
+    private Utf8Buffer render(List<ResolvedText[]> rows) {
+        RenderPhaseEvent event = RenderPhaseEvent.start();
+        // Blocks of one table are alike; size for the last block seen, with some slack
+        int last = lastChunkSize;
+        Utf8Buffer out = BufferPool.shared().acquire(last > 0 ? last + last / 8 : rows.size() * 64);
+        for (ResolvedText[] cells : rows) {
+            format.appendRow(out, cells);
+        }
+        lastChunkSize = out.length();
+        event.complete(templateName, renderFormat.name(), RenderPhaseEvent.ROW_BLOCK, rows.size(), out.length());
+        return out;
+    }
+
+    private static Utf8Buffer join(CompletableFuture<Utf8Buffer> chunk) {
+        try {
+            return chunk.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
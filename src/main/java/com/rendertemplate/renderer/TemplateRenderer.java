@@ -4,6 +4,11 @@ import com.rendertemplate.model.RenderFormat;
 import com.rendertemplate.model.RenderResult;
 import com.rendertemplate.model.Template;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
 /**
  * Interface for template renderers that convert a Template to a specific output format.
  */
@@ -18,6 +23,39 @@ public interface TemplateRenderer {
      */
     RenderResult render(Template template);
 
+    /**
+     * Renders the given template, writing the output to the stream as it is produced.
+     * The stream is flushed but not closed.
+     *
+     * <p>The default implementation renders the whole document in memory and then writes it.
+     * Renderers able to produce output incrementally should override this method.</p>
+     *
+     * @param template the template to render
+     * @param out      the stream to write the output to
+     * @throws RenderException if rendering or writing fails
+     */
+    default void render(Template template, OutputStream out) {
+        RenderResult result = render(template);
+        try {
+            result.body().transferTo(out);
+            out.flush();
+        } catch (IOException e) {
+            throw new RenderException("Failed to write " + getFormat() + " output", e);
+        }
+    }
+
+    /**
+     * Renders the given template, writing the output to the channel as it is produced.
+     * The channel is not closed.
+     *
+     * @param template the template to render
+     * @param channel  the channel to write the output to
+     * @throws RenderException if rendering or writing fails
+     */
+    default void render(Template template, WritableByteChannel channel) {
+        render(template, Channels.newOutputStream(channel));
+    }
+
     /**
      * Returns the output format supported by this renderer.
      *
@@ -0,0 +1,92 @@
+package com.rendertemplate.renderer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Bounded output buffer used by the renderers when streaming. Content is appended to
+ * {@link #buffer()}, already encoded as UTF-8, and drained to the underlying stream once it
+ * grows past {@link #FLUSH_THRESHOLD} bytes, so memory use does not depend on the output size.
+ *
+ * <p>The buffer is taken from the shared {@link BufferPool} and must be handed back with
+ * {@link #release()} once the render is over.</p>
+ */
+final class TextOutput {
+
+    static final int FLUSH_THRESHOLD = 8192;
+
+    private final OutputStream out;
+    private final Utf8Buffer buffer = BufferPool.shared().acquire(FLUSH_THRESHOLD + 1024);
+    private boolean released;
+
+    TextOutput(OutputStream out) {
+        this.out = out;
+    }
+
+    Utf8Buffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Drains the buffer to the stream if it has reached the flush threshold.
+     */
+    void flushIfFull() throws IOException {
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            drain();
+        }
+    }
+
+    /**
+     * Writes a separately rendered chunk after the buffered content.
+     */
+    void write(Utf8Buffer chunk) throws IOException {
+        drain();
+        chunk.writeTo(out);
+    }
+
+    /**
+     * Appends a raw byte, draining the buffer once it is full.
+     */
+    void write(int b) throws IOException {
+        buffer.appendByte(b);
+        flushIfFull();
+    }
+
+    /**
+     * Appends raw bytes, draining the buffer as it fills.
+     */
+    void write(byte[] b, int off, int len) throws IOException {
+        if (len >= FLUSH_THRESHOLD) {
+            drain();
+            out.write(b, off, len);
+        } else {
+            buffer.append(b, off, len);
+            flushIfFull();
+        }
+    }
+
+    /**
+     * Drains any remaining content and flushes the stream. The stream is not closed.
+     */
+    void finish() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Returns the buffer to the pool. Safe to call more than once.
+     */
+    void release() {
+        if (!released) {
+            released = true;
+            BufferPool.shared().release(buffer);
+        }
+    }
+
+    private void drain() throws IOException {
+        if (buffer.length() > 0) {
+            buffer.writeTo(out);
+            buffer.reset();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.rendertemplate.renderer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that encodes text to UTF-8 as it is appended.
+ *
+ * <p>Text renderers write markup and resolved values straight into this buffer instead of
+ * building a {@code String} and encoding it afterwards. ASCII text is copied one byte per
+ * character without going through a {@link java.nio.charset.CharsetEncoder}, and constant
+ * markup can be encoded once with {@link #encode(String)} and appended as bytes. Unpaired
+ * surrogates are written as {@code '?'}, as {@link String#getBytes} does.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ */
+public final class Utf8Buffer {
+
+    private byte[] bytes;
+    private int length;
+
+    public Utf8Buffer() {
+        this(256);
+    }
+
+    public Utf8Buffer(int initialCapacity) {
+        this.bytes = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    /**
+     * Encodes a constant once, for appending with {@link #append(byte[])}.
+     */
+    public static byte[] encode(String constant) {
+        return constant.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends already encoded bytes.
+     */
+    public Utf8Buffer append(byte[] encoded) {
+        ensureCapacity(length + encoded.length);
+        System.arraycopy(encoded, 0, bytes, length, encoded.length);
+        length += encoded.length;
+        return this;
+    }
+
+    /**
+     * Appends {@code length} already encoded bytes starting at {@code offset}.
+     */
+    public Utf8Buffer append(byte[] encoded, int offset, int length) {
+        ensureCapacity(this.length + length);
+        System.arraycopy(encoded, offset, bytes, this.length, length);
+        this.length += length;
+        return this;
+    }
+
+    /**
+     * Appends a single raw byte.
+     */
+    void appendByte(int b) {
+        ensureCapacity(length + 1);
+        bytes[length++] = (byte) b;
+    }
+
+    /**
+     * Appends a single character.
+     */
+    public Utf8Buffer append(char c) {
+        if (c < 0x80) {
+            ensureCapacity(length + 1);
+            bytes[length++] = (byte) c;
+            return this;
+        }
+        return append(String.valueOf(c), 0, 1);
+    }
+
+    /**
+     * Appends the text, encoded to UTF-8.
+     */
+    public Utf8Buffer append(String text) {
+        return append(text, 0, text.length());
+    }
+
+    /**
+     * Appends the characters {@code start} (inclusive) to {@code end} (exclusive) of the text,
+     * encoded to UTF-8.
+     */
+    public Utf8Buffer append(String text, int start, int end) {
+        ensureCapacity(length + (end - start));
+        byte[] b = bytes;
+        int pos = length;
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            b[pos++] = (byte) c;
+            i++;
+        }
+        length = pos;
+        if (i < end) {
+            appendNonAscii(text, i, end);
+        }
+        return this;
+    }
+
+    /**
+     * Appends the characters {@code start} (inclusive) to {@code end} (exclusive) of a
+     * character sequence, e.g. a value formatted into a reused {@link StringBuilder}, encoded
+     * to UTF-8.
+     */
+    public Utf8Buffer append(CharSequence text, int start, int end) {
+        ensureCapacity(length + (end - start));
+        byte[] b = bytes;
+        int pos = length;
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            b[pos++] = (byte) c;
+            i++;
+        }
+        length = pos;
+        if (i < end) {
+            appendNonAscii(text, i, end);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of bytes written.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the number of bytes the buffer can hold without growing.
+     */
+    int capacity() {
+        return bytes.length;
+    }
+
+    /**
+     * Discards the content, keeping the allocated capacity.
+     */
+    public void reset() {
+        length = 0;
+    }
+
+    /**
+     * Returns a copy of the content.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Writes the content to the stream.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, length);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void appendNonAscii(CharSequence text, int start, int end) {
+        // Worst case is three bytes per UTF-16 unit
+        ensureCapacity(length + 3 * (end - start));
+        byte[] b = bytes;
+        int pos = length;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                b[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                b[pos++] = (byte) (0xC0 | (c >> 6));
+                b[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, text.charAt(++i));
+                    b[pos++] = (byte) (0xF0 | (cp >> 18));
+                    b[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    b[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    b[pos++] = (byte) (0x80 | (cp & 0x3F));
+                } else {
+                    b[pos++] = '?';
+                }
+            } else {
+                b[pos++] = (byte) (0xE0 | (c >> 12));
+                b[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        length = pos;
+    }
+
+    void ensureCapacity(int required) {
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+        }
+    }
+}
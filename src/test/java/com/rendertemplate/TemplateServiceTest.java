@@ -1,14 +1,44 @@
 package com.rendertemplate;
 
+import com.rendertemplate.cache.RenderCache;
+import com.rendertemplate.factory.RendererFactory;
+import com.rendertemplate.metrics.RenderMetrics;
+import com.rendertemplate.metrics.RenderStats;
+import com.rendertemplate.model.ColumnarRows;
 import com.rendertemplate.model.RenderFormat;
+import com.rendertemplate.model.RenderOutcome;
+import com.rendertemplate.model.RenderResult;
+import com.rendertemplate.model.RowSchema;
 import com.rendertemplate.model.Template;
+import com.rendertemplate.renderer.CsvRenderer;
+import com.rendertemplate.renderer.RenderException;
+import com.rendertemplate.renderer.TemplateRenderer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class TemplateServiceTest {
 
@@ -83,4 +113,378 @@ class TemplateServiceTest {
         assertEquals(RenderFormat.HTML, result.format());
         assertTrue(result.contentAsString().contains("Hello World"));
     }
+
+    @Test
+    void shouldRenderToOutputStream() {
+        Template csvTemplate = Template.builder()
+                .name("test-csv")
+                .table(List.of("greeting"), List.of("{{name}}"))
+                .data("name", "World")
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.render(csvTemplate, RenderFormat.CSV, out);
+
+        assertEquals("greeting\nWorld", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldRenderToFile(@TempDir Path directory) throws IOException {
+        Path target = directory.resolve("export.csv");
+        Files.writeString(target, "stale content that is longer than the export");
+        Template template = Template.builder()
+                .name("export")
+                .table(List.of("N"), List.of("{{n}}"))
+                .rows(Stream.of(Map.of("n", "1"), Map.of("n", "2")))
+                .build();
+
+        long size = service.renderToFile(template, RenderFormat.CSV, target);
+
+        assertEquals("N\n1\n2", Files.readString(target));
+        assertEquals(Files.size(target), size);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void shouldLeaveNoFileWhenRenderToFileFails(@TempDir Path directory) throws IOException {
+        Template template = Template.builder()
+                .name("no-table")
+                .heading("Title")
+                .build();
+
+        assertThrows(RenderException.class,
+                () -> service.renderToFile(template, RenderFormat.CSV, directory.resolve("out.csv")));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void shouldReportRendersToListener() {
+        RenderMetrics metrics = new RenderMetrics();
+        TemplateService measured = new TemplateService(new RendererFactory(), null, null, metrics);
+        Template template = Template.builder()
+                .name("report")
+                .table(List.of("N"), List.of("{{n}}"))
+                .data("rows", List.of(Map.of("n", 1), Map.of("n", 2), Map.of("n", 3)))
+                .build();
+
+        RenderResult result = measured.render(template, RenderFormat.CSV);
+        measured.render(template, EnumSet.of(RenderFormat.CSV, RenderFormat.HTML));
+        measured.render(template, RenderFormat.CSV, new ByteArrayOutputStream());
+        Template noTable = Template.builder().name("report").heading("x").build();
+        assertThrows(RenderException.class, () -> measured.render(noTable, RenderFormat.CSV));
+
+        RenderStats csv = metrics.snapshot(RenderFormat.CSV, "report");
+        assertEquals(4, csv.count());
+        assertEquals(1, csv.errors());
+        assertEquals(3 * result.size(), csv.bytes());
+        assertEquals(9, csv.rows());
+        assertEquals(1, metrics.snapshot(RenderFormat.HTML, "report").count());
+    }
+
+    @Test
+    void shouldRenderAllInInputOrder() {
+        List<Template> templates = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            templates.add(Template.builder()
+                    .name("t" + i)
+                    .table(List.of("n"), List.of("{{n}}"))
+                    .data("n", i)
+                    .build());
+        }
+
+        List<RenderOutcome> outcomes = service.renderAll(templates, RenderFormat.CSV);
+
+        assertEquals(50, outcomes.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, outcomes.get(i).index());
+            assertEquals("n\n" + i, outcomes.get(i).getOrThrow().contentAsString());
+        }
+    }
+
+    @Test
+    void shouldIsolateFailuresPerTemplate() {
+        Template valid = Template.builder()
+                .name("valid")
+                .table(List.of("greeting"), List.of("{{name}}"))
+                .data("name", "World")
+                .build();
+        Template invalid = Template.builder()
+                .name("invalid")
+                .heading("CSV needs a table")
+                .build();
+
+        List<RenderOutcome> outcomes = service.renderAll(List.of(valid, invalid, valid), RenderFormat.CSV);
+
+        assertTrue(outcomes.get(0).isSuccess());
+        assertFalse(outcomes.get(1).isSuccess());
+        assertEquals("invalid", outcomes.get(1).templateName());
+        assertInstanceOf(RenderException.class, outcomes.get(1).error());
+        assertTrue(outcomes.get(2).isSuccess());
+    }
+
+    @Test
+    void shouldBoundParallelismOnConfiguredExecutor() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        TemplateRenderer slowRenderer = new TemplateRenderer() {
+            @Override
+            public RenderResult render(Template template) {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    active.decrementAndGet();
+                }
+                return new RenderResult(new byte[0], RenderFormat.HTML, template.getName());
+            }
+
+            @Override
+            public RenderFormat getFormat() {
+                return RenderFormat.HTML;
+            }
+        };
+        RendererFactory factory = new RendererFactory();
+        factory.register(slowRenderer);
+        List<Template> templates = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            templates.add(Template.builder().name("t" + i).heading("h").build());
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            TemplateService batchService = new TemplateService(factory, executor);
+            List<RenderOutcome> outcomes = batchService.renderAll(templates, RenderFormat.HTML, 2);
+
+            assertTrue(outcomes.stream().allMatch(RenderOutcome::isSuccess));
+        }
+        assertTrue(maxActive.get() <= 2);
+    }
+
+    @Test
+    void shouldReportEachCompletionToCallback() {
+        List<Template> templates = List.of(
+                Template.builder().name("a").heading("A").build(),
+                Template.builder().name("b").heading("B").build());
+        Set<String> completed = ConcurrentHashMap.newKeySet();
+
+        service.renderAll(templates, RenderFormat.HTML, 4, outcome -> completed.add(outcome.templateName()));
+
+        assertEquals(Set.of("a", "b"), completed);
+    }
+
+    @Test
+    void shouldRenderSeveralFormatsInOnePass() {
+        Template template = Template.builder()
+                .name("report")
+                .heading("Report for {{company}}")
+                .table(List.of("Name", "Note"), List.of("{{name}}", "<{{note}}>"))
+                .data("company", "Acme & Co")
+                .data("rows", List.of(
+                        Map.of("name", "Alice", "note", "a, b"),
+                        Map.of("name", "Bob", "note", "\"quoted\"")))
+                .build();
+
+        Map<RenderFormat, RenderResult> results = service.render(template, EnumSet.allOf(RenderFormat.class));
+
+        assertEquals(EnumSet.allOf(RenderFormat.class), results.keySet());
+        assertEquals(service.renderAsHtml(template).contentAsString(), results.get(RenderFormat.HTML).contentAsString());
+        assertEquals(service.renderAsCsv(template).contentAsString(), results.get(RenderFormat.CSV).contentAsString());
+        assertEquals("%PDF", new String(results.get(RenderFormat.PDF).content(), 0, 4, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void shouldIterateSingleUseRowsOnceForAllFormats() {
+        Template template = Template.builder()
+                .name("report")
+                .table(List.of("n"), List.of("{{n}}"))
+                .rows(Stream.of(Map.<String, Object>of("n", 1), Map.<String, Object>of("n", 2)))
+                .build();
+
+        Map<RenderFormat, RenderResult> results = service.render(template, EnumSet.of(RenderFormat.HTML, RenderFormat.CSV));
+
+        assertEquals("n\n1\n2", results.get(RenderFormat.CSV).contentAsString());
+        assertTrue(results.get(RenderFormat.HTML).contentAsString().contains("<td>1</td></tr><tr><td>2</td>"));
+    }
+
+    @Test
+    void shouldFailMultiFormatRenderWhenOneFormatIsInvalid() {
+        Template template = Template.builder()
+                .name("no-table")
+                .heading("CSV needs a table")
+                .build();
+
+        assertThrows(RenderException.class, () ->
+                service.render(template, EnumSet.of(RenderFormat.PDF, RenderFormat.CSV)));
+    }
+
+    @Test
+    void shouldServeRepeatedRendersFromConfiguredCache() {
+        RenderCache cache = new RenderCache(1024 * 1024);
+        TemplateService cachingService = new TemplateService(new RendererFactory(), null, cache);
+        Template template = Template.builder()
+                .name("dashboard")
+                .heading("Hello {{name}}")
+                .data("name", "World")
+                .build();
+
+        RenderResult first = cachingService.renderAsPdf(template);
+        RenderResult second = cachingService.renderAsPdf(template);
+
+        assertSame(first, second);
+        assertEquals(1, cache.stats().hits());
+        assertSame(cache, cachingService.getCache());
+    }
+
+    @Test
+    void shouldRenderColumnarRowsLikeMapRows() {
+        ColumnarRows columnar = ColumnarRows.builder()
+                .stringColumn("name").intColumn("qty").longColumn("id").doubleColumn("price")
+                .addRow("<Widget>", 3, 42L, 9.99)
+                .addRow("Gadget, large", -1, 7L, 0.5)
+                .build();
+        List<Map<String, Object>> maps = List.of(
+                Map.of("name", "<Widget>", "qty", 3, "id", 42L, "price", 9.99),
+                Map.of("name", "Gadget, large", "qty", -1, "id", 7L, "price", 0.5));
+        Template.Builder layout = Template.builder()
+                .name("columnar")
+                .heading("Items")
+                .table(List.of("Name", "Qty", "Id", "Price"), List.of("{{name}}", "{{qty}}", "#{{id}}", "{{price}}"));
+
+        Map<RenderFormat, RenderResult> fromColumns = service.render(layout.rows(columnar).build(), EnumSet.allOf(RenderFormat.class));
+        Map<RenderFormat, RenderResult> fromMaps = service.render(layout.rows(maps).build(), EnumSet.allOf(RenderFormat.class));
+
+        assertEquals(fromMaps.get(RenderFormat.HTML).contentAsString(), fromColumns.get(RenderFormat.HTML).contentAsString());
+        assertEquals(fromMaps.get(RenderFormat.CSV).contentAsString(), fromColumns.get(RenderFormat.CSV).contentAsString());
+        assertEquals(2, fromColumns.get(RenderFormat.PDF).rowCount());
+    }
+
+    @Test
+    void shouldRenderIndexedRowsLikeMapRows() {
+        RowSchema schema = RowSchema.of("name", "qty");
+        RowSchema reordered = RowSchema.of("qty", "extra", "name");
+        List<Map<String, Object>> indexed = List.of(
+                schema.row("<Widget>", 3),
+                schema.row("Gadget, large", null),
+                reordered.row(5, "x", "Gizmo"));
+        List<Map<String, Object>> maps = List.of(
+                Map.of("name", "<Widget>", "qty", 3),
+                Map.of("name", "Gadget, large"),
+                Map.of("qty", 5, "extra", "x", "name", "Gizmo"));
+        Template.Builder layout = Template.builder()
+                .name("indexed")
+                .table(List.of("Name", "Qty"), List.of("{{name}}", "{{qty}}"));
+
+        Set<RenderFormat> formats = EnumSet.of(RenderFormat.HTML, RenderFormat.CSV);
+        Map<RenderFormat, RenderResult> fromIndexed = service.render(layout.data("rows", indexed).build(), formats);
+        Map<RenderFormat, RenderResult> fromMaps = service.render(layout.data("rows", maps).build(), formats);
+
+        assertEquals(fromMaps.get(RenderFormat.HTML).contentAsString(), fromIndexed.get(RenderFormat.HTML).contentAsString());
+        assertEquals(fromMaps.get(RenderFormat.CSV).contentAsString(), fromIndexed.get(RenderFormat.CSV).contentAsString());
+        assertTrue(fromIndexed.get(RenderFormat.CSV).contentAsString().contains("Gizmo,5"));
+    }
+
+    @Test
+    void shouldCreateFileWithDefaultPermissions(@TempDir Path directory) throws IOException {
+        assumeTrue(Files.getFileStore(directory).supportsFileAttributeView(PosixFileAttributeView.class));
+        Path reference = Files.createFile(directory.resolve("reference.csv"));
+        Path target = directory.resolve("export.csv");
+
+        service.renderToFile(greetingCsv(), RenderFormat.CSV, target);
+
+        assertEquals(Files.getPosixFilePermissions(reference), Files.getPosixFilePermissions(target));
+    }
+
+    @Test
+    void shouldKeepPermissionsOfReplacedFile(@TempDir Path directory) throws IOException {
+        assumeTrue(Files.getFileStore(directory).supportsFileAttributeView(PosixFileAttributeView.class));
+        Path target = Files.writeString(directory.resolve("export.csv"), "old");
+        Set<PosixFilePermission> shared = PosixFilePermissions.fromString("rw-rw-r--");
+        Files.setPosixFilePermissions(target, shared);
+
+        service.renderToFile(greetingCsv(), RenderFormat.CSV, target);
+
+        assertEquals("greeting\nWorld", Files.readString(target));
+        assertEquals(shared, Files.getPosixFilePermissions(target));
+    }
+
+    private static Template greetingCsv() {
+        return Template.builder()
+                .name("test-csv")
+                .table(List.of("greeting"), List.of("{{name}}"))
+                .data("name", "World")
+                .build();
+    }
+
+    @Test
+    void shouldNotLetThrowingListenerChangeRenderOutcome() {
+        IllegalStateException listenerFailure = new IllegalStateException("listener down");
+        TemplateService observed = new TemplateService(new RendererFactory(), null, null, event -> {
+            throw listenerFailure;
+        });
+        Template noTable = Template.builder().name("no-table").heading("x").build();
+
+        RenderResult result = observed.render(greetingCsv(), RenderFormat.CSV);
+        List<RenderOutcome> outcomes = observed.renderAll(List.of(greetingCsv()), RenderFormat.CSV);
+        Map<RenderFormat, RenderResult> results = observed.render(greetingCsv(), EnumSet.of(RenderFormat.CSV, RenderFormat.HTML));
+        RenderException failure = assertThrows(RenderException.class, () -> observed.render(noTable, RenderFormat.CSV));
+
+        assertEquals("greeting\nWorld", result.contentAsString());
+        assertTrue(outcomes.get(0).isSuccess());
+        assertEquals(2, results.size());
+        assertArrayEquals(new Throwable[] {listenerFailure}, failure.getSuppressed());
+    }
+
+    @Test
+    void shouldRecordErrorsAsFailedOutcomes() {
+        StackOverflowError overflow = new StackOverflowError();
+        RendererFactory factory = new RendererFactory();
+        factory.register(new TemplateRenderer() {
+            @Override
+            public RenderResult render(Template template) {
+                if (template.getName().equals("deep")) {
+                    throw overflow;
+                }
+                return new CsvRenderer().render(template);
+            }
+
+            @Override
+            public RenderFormat getFormat() {
+                return RenderFormat.CSV;
+            }
+        });
+        Template deep = Template.builder().name("deep").table(List.of("a"), List.of("b")).build();
+
+        List<RenderOutcome> outcomes = new TemplateService(factory).renderAll(List.of(greetingCsv(), deep), RenderFormat.CSV);
+
+        assertTrue(outcomes.get(0).isSuccess());
+        assertEquals("deep", outcomes.get(1).templateName());
+        assertSame(overflow, outcomes.get(1).error().getCause());
+        assertThrows(RenderException.class, outcomes.get(1)::getOrThrow);
+    }
+
+    @Test
+    void shouldReportWalkedRowsOfStreamedRenders(@TempDir Path directory) {
+        List<Long> rows = new ArrayList<>();
+        TemplateService observed = new TemplateService(new RendererFactory(), null, null, event -> rows.add(event.rows()));
+
+        observed.render(streamed(), RenderFormat.CSV, new ByteArrayOutputStream());
+        observed.render(streamed(), RenderFormat.HTML, Channels.newChannel(new ByteArrayOutputStream()));
+        observed.renderToFile(streamed(), RenderFormat.CSV, directory.resolve("rows.csv"));
+
+        assertEquals(List.of(3L, 3L, 3L), rows);
+    }
+
+    private static Template streamed() {
+        return Template.builder()
+                .name("streamed")
+                .table(List.of("n"), List.of("{{n}}"))
+                .rows(Stream.of(Map.<String, Object>of("n", 1), Map.of("n", 2), Map.of("n", 3)))
+                .build();
+    }
 }
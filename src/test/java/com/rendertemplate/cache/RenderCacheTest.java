@@ -0,0 +1,229 @@
+package com.rendertemplate.cache;
+
+import com.rendertemplate.model.RenderFormat;
+import com.rendertemplate.model.RenderResult;
+import com.rendertemplate.model.Template;
+import com.rendertemplate.renderer.HtmlRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderCacheTest {
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @Test
+    void shouldServeRepeatedRenderFromCache() {
+        RenderCache cache = new RenderCache(1024);
+
+        RenderResult first = cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+        RenderResult second = cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+
+        assertSame(first, second);
+        assertEquals(1, renders.get());
+        assertEquals(new CacheStats(1, 1, 0, 1, 10), cache.stats());
+        assertEquals(0.5, cache.stats().hitRate());
+    }
+
+    @Test
+    void shouldKeySeparatelyOnFormatAndData() {
+        RenderCache cache = new RenderCache(1024);
+
+        cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+        cache.getOrRender(template("a", 1), RenderFormat.CSV, () -> render("a", 10));
+        cache.getOrRender(template("a", 2), RenderFormat.HTML, () -> render("a", 10));
+
+        assertEquals(3, renders.get());
+        assertEquals(3, cache.stats().entryCount());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedWhenOverBudget() {
+        RenderCache cache = new RenderCache(25);
+
+        cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+        cache.getOrRender(template("b", 1), RenderFormat.HTML, () -> render("b", 10));
+        cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+        cache.getOrRender(template("c", 1), RenderFormat.HTML, () -> render("c", 10));
+        cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+
+        assertEquals(3, renders.get());
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(20, cache.stats().cachedBytes());
+    }
+
+    @Test
+    void shouldNotCacheResultsLargerThanBudget() {
+        RenderCache cache = new RenderCache(5);
+
+        cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+        cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+
+        assertEquals(2, renders.get());
+        assertEquals(0, cache.stats().entryCount());
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() {
+        AtomicLong now = new AtomicLong();
+        RenderCache cache = new RenderCache(1024, Duration.ofSeconds(10), now::get);
+
+        cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+
+        assertEquals(2, renders.get());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void shouldBypassCacheForExplicitRowSource() {
+        RenderCache cache = new RenderCache(1024);
+        Template template = Template.builder()
+                .name("a")
+                .table(List.of("n"), List.of("{{n}}"))
+                .rows(Stream.of(Map.<String, Object>of("n", 1)))
+                .build();
+
+        cache.getOrRender(template, RenderFormat.CSV, () -> render("a", 10));
+
+        assertEquals(1, renders.get());
+        assertEquals(new CacheStats(0, 0, 0, 0, 0), cache.stats());
+    }
+
+    @Test
+    void shouldClearEntriesOnInvalidateAll() {
+        RenderCache cache = new RenderCache(1024);
+        cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+
+        cache.invalidateAll();
+        cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10));
+
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void shouldRejectNonPositiveBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new RenderCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new RenderCache(10, Duration.ZERO));
+    }
+
+    private Template template(String name, int value) {
+        return Template.builder()
+                .name(name)
+                .heading("{{value}}")
+                .data("value", value)
+                .build();
+    }
+
+    private RenderResult render(String name, int size) {
+        renders.incrementAndGet();
+        return new RenderResult(new byte[size], RenderFormat.HTML, name);
+    }
+
+    @Test
+    void shouldNotShareEntriesBetweenValuesOfDifferentTypes() {
+        RenderCache cache = new RenderCache(1024 * 1024);
+        HtmlRenderer renderer = new HtmlRenderer();
+        Template number = priced(5);
+        Template text = priced("5");
+
+        RenderResult first = cache.getOrRender(number, RenderFormat.HTML, () -> renderer.render(number));
+        RenderResult second = cache.getOrRender(text, RenderFormat.HTML, () -> renderer.render(text));
+
+        assertEquals("<html><body><h1>$5.00</h1></body></html>", first.contentAsString());
+        assertEquals("<html><body><h1>5</h1></body></html>", second.contentAsString());
+        assertEquals(2, cache.stats().entryCount());
+        assertEquals(0, cache.stats().hits());
+    }
+
+    private static Template priced(Object amount) {
+        return Template.builder()
+                .name("price")
+                .locale(Locale.US)
+                .heading("{{amount:currency}}")
+                .data("amount", amount)
+                .build();
+    }
+
+    @Test
+    void shouldBypassCacheForCustomValueFormats() {
+        RenderCache cache = new RenderCache(1024);
+        Template template = Template.builder()
+                .name("a")
+                .heading("{{value}}")
+                .data("value", 1)
+                .format("value", (value, out) -> out.append('#').append(value))
+                .build();
+
+        cache.getOrRender(template, RenderFormat.HTML, () -> render("a", 10));
+        cache.getOrRender(template, RenderFormat.HTML, () -> render("a", 10));
+
+        assertEquals(2, renders.get());
+        assertEquals(0, cache.stats().entryCount());
+    }
+
+    @Test
+    void shouldRenderConcurrentMissesOnce() throws Exception {
+        // Too large to cache, so the second caller can only get the result from the first
+        RenderCache cache = new RenderCache(5);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<RenderResult> first = new AtomicReference<>();
+        Thread leader = new Thread(() -> first.set(cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> {
+            started.countDown();
+            awaitUninterruptibly(release);
+            return render("a", 10);
+        })));
+        leader.start();
+        started.await();
+
+        AtomicReference<RenderResult> second = new AtomicReference<>();
+        Thread waiter = new Thread(() -> second.set(
+                cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10))));
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        leader.join();
+        waiter.join();
+
+        assertEquals(1, renders.get());
+        assertSame(first.get(), second.get());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void shouldRenderAgainAfterFailedRender() {
+        RenderCache cache = new RenderCache(1024);
+
+        assertThrows(IllegalStateException.class, () -> cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> {
+            throw new IllegalStateException("down");
+        }));
+
+        assertNotNull(cache.getOrRender(template("a", 1), RenderFormat.HTML, () -> render("a", 10)));
+        assertEquals(1, renders.get());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.rendertemplate.cache;
+
+import com.rendertemplate.format.ValueFormat;
+import com.rendertemplate.model.Template;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateFingerprintTest {
+
+    @Test
+    void shouldBeStableAcrossEqualTemplates() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("a", 1);
+        first.put("b", "x");
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("b", "x");
+        second.put("a", 1);
+
+        assertEquals(
+                TemplateFingerprint.of(template("report", first)),
+                TemplateFingerprint.of(template("report", second)));
+    }
+
+    @Test
+    void shouldDifferWhenNameSectionsOrDataDiffer() {
+        String base = TemplateFingerprint.of(template("report", Map.of("a", 1)));
+
+        assertNotEquals(base, TemplateFingerprint.of(template("other", Map.of("a", 1))));
+        assertNotEquals(base, TemplateFingerprint.of(template("report", Map.of("a", 2))));
+        assertNotEquals(base, TemplateFingerprint.of(Template.builder()
+                .name("report")
+                .paragraph("{{a}}")
+                .data(Map.of("a", 1))
+                .build()));
+    }
+
+    @Test
+    void shouldIncludeNestedRows() {
+        String one = TemplateFingerprint.of(template("report", Map.of("rows", List.of(Map.of("n", 1)))));
+        String two = TemplateFingerprint.of(template("report", Map.of("rows", List.of(Map.of("n", 2)))));
+
+        assertNotEquals(one, two);
+    }
+
+    @Test
+    void shouldHandleNullValues() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("a", null);
+
+        assertNotEquals(
+                TemplateFingerprint.of(template("report", data)),
+                TemplateFingerprint.of(template("report", Map.of("a", "null"))));
+    }
+
+    private Template template(String name, Map<String, Object> data) {
+        return Template.builder()
+                .name(name)
+                .heading("{{a}}")
+                .data(data)
+                .build();
+    }
+
+    @Test
+    void shouldDifferWhenValueFormatsDiffer() {
+        Template plain = template("report", Map.of("a", 1));
+        Template twoDigits = Template.builder().name("report").heading("{{a}}").data("a", 1)
+                .format("a", ValueFormat.decimal(2)).build();
+        Template threeDigits = Template.builder().name("report").heading("{{a}}").data("a", 1)
+                .format("a", ValueFormat.decimal(3)).build();
+
+        assertNotEquals(TemplateFingerprint.of(plain), TemplateFingerprint.of(twoDigits));
+        assertNotEquals(TemplateFingerprint.of(twoDigits), TemplateFingerprint.of(threeDigits));
+        assertEquals(TemplateFingerprint.of(twoDigits), TemplateFingerprint.of(Template.builder().name("report")
+                .heading("{{a}}").data("a", 1).format("a", ValueFormat.decimal(2)).build()));
+    }
+
+    @Test
+    void shouldDifferWhenLocalesDiffer() {
+        Template us = Template.builder().name("r").heading("{{a:currency}}").data("a", 1).locale(Locale.US).build();
+        Template uk = Template.builder().name("r").heading("{{a:currency}}").data("a", 1).locale(Locale.UK).build();
+
+        assertNotEquals(TemplateFingerprint.of(us), TemplateFingerprint.of(uk));
+    }
+
+    @Test
+    void shouldDifferWhenValuesPrintAlikeButDifferInType() {
+        assertNotEquals(TemplateFingerprint.of(template("t", Map.of("a", 5))),
+                TemplateFingerprint.of(template("t", Map.of("a", "5"))));
+        assertNotEquals(TemplateFingerprint.of(template("t", Map.of("a", 5))),
+                TemplateFingerprint.of(template("t", Map.of("a", 5L))));
+    }
+
+    @Test
+    void shouldFingerprintTemporalFormatsByLocaleAndZone() {
+        DateTimeFormatter month = DateTimeFormatter.ofPattern("MMM HH:mm");
+
+        String french = TemplateFingerprint.of(formatted(ValueFormat.temporal(month.withLocale(Locale.FRENCH))));
+        String english = TemplateFingerprint.of(formatted(ValueFormat.temporal(month.withLocale(Locale.ENGLISH))));
+        String tokyo = TemplateFingerprint.of(formatted(ValueFormat.temporal(
+                month.withLocale(Locale.ENGLISH).withZone(ZoneId.of("Asia/Tokyo")))));
+
+        assertNotEquals(french, english);
+        assertNotEquals(english, tokyo);
+        assertEquals(english, TemplateFingerprint.of(formatted(ValueFormat.temporal(
+                DateTimeFormatter.ofPattern("MMM HH:mm", Locale.ENGLISH)))));
+    }
+
+    @Test
+    void shouldFingerprintDirectiveFormatsByLocale() {
+        assertNotEquals(TemplateFingerprint.of(formatted(ValueFormat.directive("currency", Locale.US))),
+                TemplateFingerprint.of(formatted(ValueFormat.directive("currency", Locale.UK))));
+        assertEquals(TemplateFingerprint.of(formatted(ValueFormat.decimal(2, ',', '.'))),
+                TemplateFingerprint.of(formatted(ValueFormat.decimal(2, ',', '.'))));
+    }
+
+    @Test
+    void shouldNotFingerprintCustomFormats() {
+        Template custom = formatted((value, out) -> out.append("*"));
+
+        assertFalse(TemplateFingerprint.supports(custom));
+        assertTrue(TemplateFingerprint.supports(formatted(ValueFormat.standard())));
+        assertThrows(IllegalArgumentException.class, () -> TemplateFingerprint.of(custom));
+    }
+
+    private Template formatted(ValueFormat format) {
+        return Template.builder().name("t").heading("{{a}}").data("a", 1).format("a", format).build();
+    }
+}
@@ -0,0 +1,199 @@
+package com.rendertemplate.format;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValueFormatTest {
+
+    @Test
+    void shouldMatchStringValueOfInStandardFormat() {
+        Random random = new Random(7);
+        List<Object> values = new ArrayList<>(List.of(
+                "text", 0, -1, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, (short) 12, (byte) -3,
+                0.1, -0.0, 1e-7, 1e21, Double.NaN, Double.NEGATIVE_INFINITY, 1.5f,
+                new BigDecimal("1234.5600"), new BigDecimal("1E+3"), new BigDecimal("0.0000001"),
+                LocalDate.of(2026, 1, 9), LocalDate.of(1, 1, 1), LocalDate.of(-5, 3, 1), LocalDate.of(12345, 6, 7),
+                Instant.EPOCH, Instant.parse("2024-02-29T23:59:59.120Z"), Instant.parse("1969-12-31T00:00:00.000001Z"),
+                Instant.MIN, Instant.MAX, true, List.of(1)));
+        for (int i = 0; i < 2000; i++) {
+            values.add(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+            values.add(Instant.ofEpochSecond(random.nextLong(-62_135_596_800L, 253_402_300_800L),
+                    random.nextInt(4) == 0 ? random.nextInt(1_000_000_000) : random.nextInt(1000) * 1_000_000));
+            values.add(LocalDate.ofEpochDay(random.nextLong(-800_000, 3_000_000)));
+        }
+        values.add(null);
+
+        for (Object value : values) {
+            StringBuilder out = new StringBuilder("x");
+            ValueFormat.standard().formatTo(value, out);
+            assertEquals("x" + value, out.toString());
+        }
+    }
+
+    @Test
+    void shouldWritePrimitivesWithoutBoxing() {
+        StringBuilder out = new StringBuilder();
+
+        ValueFormat.standard().formatTo(-42L, out);
+        out.append('|');
+        ValueFormat.standard().formatTo(2.5, out);
+
+        assertEquals("-42|2.5", out.toString());
+    }
+
+    @Test
+    void shouldWriteFixedDecimals() {
+        ValueFormat twoDigits = ValueFormat.decimal(2);
+
+        assertEquals("1234.50", format(twoDigits, 1234.5));
+        assertEquals("0.13", format(twoDigits, 0.125));
+        assertEquals("-0.13", format(twoDigits, -0.125));
+        assertEquals("0.00", format(twoDigits, -0.001));
+        assertEquals("7.00", format(twoDigits, 7));
+        assertEquals("-7.00", format(twoDigits, -7L));
+        assertEquals("1.01", format(twoDigits, new BigDecimal("1.005")));
+        assertEquals("12345678901234567890.00", format(twoDigits, new BigInteger("12345678901234567890")));
+        assertEquals("NaN", format(twoDigits, Double.NaN));
+        assertEquals("n/a", format(twoDigits, "n/a"));
+        assertEquals("3", format(ValueFormat.decimal(0), 2.5));
+    }
+
+    @Test
+    void shouldGroupThousands() {
+        ValueFormat grouped = ValueFormat.decimal(2, ',', '.');
+        ValueFormat european = ValueFormat.decimal(1, '.', ',');
+
+        assertEquals("1,234,567.89", format(grouped, 1234567.891));
+        assertEquals("-999.00", format(grouped, -999));
+        assertEquals("-1,000.00", format(grouped, -1000L));
+        assertEquals("-9,223,372,036,854,775,808.00", format(grouped, Long.MIN_VALUE));
+        assertEquals("12,345,678,901,234,567,890.12", format(grouped, new BigDecimal("12345678901234567890.123")));
+        assertEquals("1.234,5", format(european, 1234.5));
+    }
+
+    @Test
+    void shouldRejectInvalidFractionDigits() {
+        assertThrows(IllegalArgumentException.class, () -> ValueFormat.decimal(-1));
+        assertThrows(IllegalArgumentException.class, () -> ValueFormat.decimal(19));
+    }
+
+    @Test
+    void shouldFormatTemporalValues() {
+        ValueFormat date = ValueFormat.temporal(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        ValueFormat instant = ValueFormat.temporal(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneOffset.UTC));
+
+        assertEquals("09/01/2026", format(date, LocalDate.of(2026, 1, 9)));
+        assertEquals("2026-01-09 10:15", format(instant, Instant.parse("2026-01-09T10:15:30Z")));
+        assertEquals("plain", format(date, "plain"));
+        assertEquals("12", format(date, 12));
+    }
+
+    @Test
+    void shouldDescribeBuiltInFormats() {
+        assertEquals(ValueFormat.decimal(2).toString(), ValueFormat.decimal(2).toString());
+        assertNotEquals(ValueFormat.decimal(2).toString(), ValueFormat.decimal(3).toString());
+        assertEquals(ValueFormat.decimal(2, ',', '.'), ValueFormat.decimal(2, ',', '.'));
+    }
+
+    @Test
+    void shouldParseDirectivesWithLocaleFormats() {
+        assertEquals(NumberFormat.getCurrencyInstance(Locale.US).format(1234.5),
+                format(ValueFormat.directive("currency", Locale.US), 1234.5));
+        assertEquals(NumberFormat.getCurrencyInstance(Locale.GERMANY).format(new BigDecimal("-0.015")),
+                format(ValueFormat.directive("currency", Locale.GERMANY), new BigDecimal("-0.015")));
+        assertEquals("12%", format(ValueFormat.directive("percent", Locale.US), 0.12));
+        assertEquals("1,234,568", format(ValueFormat.directive("integer", Locale.US), 1234567.89));
+        assertEquals("1.234,50", format(ValueFormat.directive("#,##0.00", Locale.GERMANY), 1234.5));
+        assertEquals("2026-01-09", format(ValueFormat.directive("yyyy-MM-dd", Locale.US), LocalDate.of(2026, 1, 9)));
+        assertEquals("9 janv. 2026", format(ValueFormat.directive("d MMM yyyy", Locale.FRANCE), LocalDate.of(2026, 1, 9)));
+        assertEquals("2026-01-09 10:15", format(ValueFormat.directive("yyyy-MM-dd HH:mm", Locale.US),
+                Instant.parse("2026-01-09T10:15:30Z")));
+        assertEquals("n/a", format(ValueFormat.directive("currency", Locale.US), "n/a"));
+    }
+
+    @Test
+    void shouldWritePrimitivesThroughDirectives() {
+        ValueFormat number = ValueFormat.directive("#,##0.0", Locale.US);
+        StringBuilder out = new StringBuilder();
+
+        number.formatTo(1234L, out);
+        out.append(' ');
+        number.formatTo(0.25, out);
+
+        assertEquals("1,234.0 0.2", out.toString());
+    }
+
+    @Test
+    void shouldCacheDirectivesPerLocale() {
+        assertSame(ValueFormat.directive("currency", Locale.US), ValueFormat.directive("currency", Locale.US));
+        assertNotSame(ValueFormat.directive("currency", Locale.US), ValueFormat.directive("currency", Locale.UK));
+    }
+
+    @Test
+    void shouldRejectInvalidDirectives() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ValueFormat.directive("yyyy-bb", Locale.US));
+
+        assertTrue(e.getMessage().contains("yyyy-bb"));
+    }
+
+    @Test
+    void shouldShareDirectiveFormatsAcrossThreads() throws Exception {
+        ValueFormat currency = ValueFormat.directive("currency", Locale.US);
+        NumberFormat expected = NumberFormat.getCurrencyInstance(Locale.US);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                results.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 10_000; i++) {
+                        double value = random.nextInt(10_000_000) / 100.0;
+                        if (!((NumberFormat) expected.clone()).format(value).equals(format(currency, value))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+    }
+
+    private static String format(ValueFormat format, Object value) {
+        StringBuilder out = new StringBuilder();
+        format.formatTo(value, out);
+        return out.toString();
+    }
+
+    @Test
+    void shouldDescribeOnlyBuiltInFormats() {
+        DateTimeFormatter pattern = DateTimeFormatter.ofPattern("MMM");
+
+        assertEquals("standard", ValueFormat.describe(ValueFormat.standard()));
+        assertNotEquals(ValueFormat.describe(ValueFormat.temporal(pattern.withLocale(Locale.FRENCH))),
+                ValueFormat.describe(ValueFormat.temporal(pattern.withLocale(Locale.ENGLISH))));
+        assertNotEquals(ValueFormat.describe(ValueFormat.decimal(2, ',', '.')),
+                ValueFormat.describe(ValueFormat.decimal(2, '.', ',')));
+        assertNull(ValueFormat.describe((value, out) -> out.append(value)));
+    }
+}
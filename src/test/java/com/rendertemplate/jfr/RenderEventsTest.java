@@ -0,0 +1,125 @@
+package com.rendertemplate.jfr;
+
+import com.rendertemplate.TemplateService;
+import com.rendertemplate.factory.RendererFactory;
+import com.rendertemplate.model.RenderFormat;
+import com.rendertemplate.model.Template;
+import com.rendertemplate.renderer.CsvRenderer;
+import com.rendertemplate.renderer.ParallelRowOptions;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldRecordRenderTableAndSaveEvents() throws IOException {
+        Template template = Template.builder()
+                .name("report")
+                .heading("Report")
+                .table(List.of("N"), List.of("{{n}}"))
+                .rows(rows(50))
+                .build();
+
+        List<RecordedEvent> events = record(() ->
+                new TemplateService().render(template, EnumSet.of(RenderFormat.HTML, RenderFormat.PDF)));
+
+        RecordedEvent render = only(events, TemplateRenderEvent.NAME);
+        assertEquals("report", render.getString("templateName"));
+        assertEquals("HTML,PDF", render.getString("format"));
+        assertEquals(2, render.getInt("sectionCount"));
+        assertEquals(50, render.getLong("rowCount"));
+        assertTrue(render.getLong("bytes") > 0);
+        assertTrue(render.getBoolean("success"));
+
+        RecordedEvent table = only(events, TableRenderEvent.NAME);
+        assertEquals(1, table.getInt("columnCount"));
+        assertEquals(50, table.getLong("rowCount"));
+        assertTrue(table.getDuration("outputTime").toNanos() > 0);
+
+        RecordedEvent save = only(events, RenderPhaseEvent.NAME);
+        assertEquals(RenderPhaseEvent.SAVE, save.getString("phase"));
+        assertEquals("PDF", save.getString("format"));
+        assertTrue(save.getLong("bytes") > 0);
+    }
+
+    @Test
+    void shouldRecordRowBlocksBuiltOnThePool() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            RendererFactory factory = new RendererFactory();
+            factory.register(new CsvRenderer(new ParallelRowOptions(pool, 0, 10)));
+            Template template = Template.builder()
+                    .name("blocks")
+                    .table(List.of("N"), List.of("{{n}}"))
+                    .rows(rows(25))
+                    .build();
+
+            List<RecordedEvent> events = record(() -> new TemplateService(factory).renderAsCsv(template));
+
+            List<RecordedEvent> blocks = events.stream()
+                    .filter(e -> e.getEventType().getName().equals(RenderPhaseEvent.NAME))
+                    .toList();
+            assertEquals(3, blocks.size());
+            assertEquals(25, blocks.stream().mapToLong(e -> e.getLong("rowCount")).sum());
+            assertTrue(blocks.stream().allMatch(e -> RenderPhaseEvent.ROW_BLOCK.equals(e.getString("phase"))));
+            assertEquals("CSV", only(events, TemplateRenderEvent.NAME).getString("format"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRecordFailedRender() throws IOException {
+        Template template = Template.builder().name("empty").heading("h").build();
+
+        List<RecordedEvent> events = record(() -> assertThrows(RuntimeException.class,
+                () -> new TemplateService().renderAsCsv(template)));
+
+        RecordedEvent render = only(events, TemplateRenderEvent.NAME);
+        assertFalse(render.getBoolean("success"));
+        assertEquals(-1, render.getLong("rowCount"));
+    }
+
+    private List<RecordedEvent> record(Runnable render) throws IOException {
+        Path file = tempDir.resolve("render.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of(TemplateRenderEvent.NAME, TableRenderEvent.NAME, RenderPhaseEvent.NAME)) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            render.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+
+    private static List<Map<String, Object>> rows(int count) {
+        return IntStream.range(0, count).<Map<String, Object>>mapToObj(i -> Map.of("n", i)).toList();
+    }
+}
@@ -0,0 +1,52 @@
+package com.rendertemplate.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldPlaceDurationsInPowerOfTwoBuckets() {
+        assertEquals(0, LatencyHistogram.bucketOf(0));
+        assertEquals(0, LatencyHistogram.bucketOf(1024));
+        assertEquals(1, LatencyHistogram.bucketOf(1025));
+        assertEquals(1, LatencyHistogram.bucketOf(2048));
+        assertEquals(2, LatencyHistogram.bucketOf(2049));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void shouldReportPercentilesAtBucketBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(1_500);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(1_000_000);
+        }
+
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        assertEquals(100, snapshot.count());
+        assertEquals(2048, snapshot.percentileNanos(50));
+        assertEquals(2048, snapshot.percentileNanos(90));
+        assertEquals(1L << 20, snapshot.percentileNanos(99));
+    }
+
+    @Test
+    void shouldReturnZeroPercentileWhenEmpty() {
+        assertEquals(0, new LatencyHistogram().snapshot().percentileNanos(99));
+    }
+
+    @Test
+    void shouldNotExposeSnapshotCountsForModification() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        snapshot.counts()[0] = 42;
+
+        assertEquals(1, snapshot.count());
+    }
+}
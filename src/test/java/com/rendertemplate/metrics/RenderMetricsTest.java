@@ -0,0 +1,72 @@
+package com.rendertemplate.metrics;
+
+import com.rendertemplate.model.RenderFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderMetricsTest {
+
+    @Test
+    void shouldAggregatePerFormatAndTemplate() {
+        RenderMetrics metrics = new RenderMetrics();
+
+        metrics.onRender(new RenderEvent("report", RenderFormat.CSV, 1_000, 100, 10, null));
+        metrics.onRender(new RenderEvent("report", RenderFormat.CSV, 3_000, 300, 30, null));
+        metrics.onRender(new RenderEvent("report", RenderFormat.CSV, 500, 0, -1, new IllegalStateException()));
+        metrics.onRender(new RenderEvent("report", RenderFormat.HTML, 1_000, 50, 10, null));
+
+        RenderStats csv = metrics.snapshot(RenderFormat.CSV, "report");
+        assertEquals(3, csv.count());
+        assertEquals(1, csv.errors());
+        assertEquals(400, csv.bytes());
+        assertEquals(40, csv.rows());
+        assertEquals(3, csv.latency().count());
+        assertEquals(1.0 / 3, csv.errorRate(), 1e-9);
+        assertEquals(1, metrics.snapshot(RenderFormat.HTML, "report").count());
+        assertNull(metrics.snapshot(RenderFormat.PDF, "report"));
+    }
+
+    @Test
+    void shouldPoolTemplatesBeyondLimit() {
+        RenderMetrics metrics = new RenderMetrics(2);
+
+        for (String name : List.of("a", "b", "c", "d", "a")) {
+            metrics.onRender(new RenderEvent(name, RenderFormat.CSV, 1, 1, 1, null));
+        }
+
+        assertEquals(2, metrics.snapshot(RenderFormat.CSV, "a").count());
+        assertEquals(2, metrics.snapshot(RenderFormat.CSV, RenderMetrics.OTHER_TEMPLATES).count());
+        assertEquals(3, metrics.snapshot().size());
+    }
+
+    @Test
+    void shouldCountConcurrentRendersExactly() throws InterruptedException {
+        RenderMetrics metrics = new RenderMetrics();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1000; i++) {
+                executor.execute(() -> metrics.onRender(new RenderEvent("t", RenderFormat.HTML, 10, 2, 1, null)));
+            }
+        }
+
+        RenderStats stats = metrics.snapshot(RenderFormat.HTML, "t");
+        assertEquals(1000, stats.count());
+        assertEquals(2000, stats.bytes());
+    }
+
+    @Test
+    void shouldChainListeners() {
+        RenderMetrics first = new RenderMetrics();
+        RenderMetrics second = new RenderMetrics();
+
+        first.andThen(second).onRender(new RenderEvent("t", RenderFormat.CSV, 1, 1, 1, null));
+
+        assertEquals(1, first.snapshot(RenderFormat.CSV, "t").count());
+        assertEquals(1, second.snapshot(RenderFormat.CSV, "t").count());
+    }
+}
@@ -0,0 +1,54 @@
+package com.rendertemplate.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedOutputStreamTest {
+
+    @Test
+    void shouldSplitOutputIntoChunksOfBoundedSize() {
+        byte[] data = new byte[100_000];
+        Arrays.fill(data, (byte) 'x');
+        ChunkedOutputStream out = new ChunkedOutputStream(16_384);
+
+        out.write(data, 0, data.length);
+        out.write('!');
+        RenderContent content = out.toContent();
+
+        List<ByteBuffer> chunks = content.chunks();
+        assertTrue(chunks.size() > 1);
+        assertTrue(chunks.stream().allMatch(chunk -> chunk.remaining() <= 16_384));
+        assertEquals(100_001, content.size());
+        assertEquals('!', content.toByteArray()[100_000]);
+    }
+
+    @Test
+    void shouldProduceEmptyContent() {
+        assertEquals(0, new ChunkedOutputStream().toContent().size());
+    }
+
+    @Test
+    void shouldRejectWritesAfterContentIsBuilt() {
+        ChunkedOutputStream out = new ChunkedOutputStream();
+        out.write('a');
+        out.toContent();
+
+        assertThrows(IllegalStateException.class, () -> out.write('b'));
+    }
+
+    @Test
+    void shouldSizeFirstChunkForExpectedOutput() {
+        ChunkedOutputStream out = new ChunkedOutputStream(1024, 800);
+        out.write(new byte[850], 0, 850);
+
+        List<ByteBuffer> chunks = out.toContent().chunks();
+
+        assertEquals(1, chunks.size());
+        assertEquals(900, chunks.get(0).capacity());
+    }
+}
@@ -0,0 +1,122 @@
+package com.rendertemplate.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarRowsTest {
+
+    @Test
+    void shouldStoreTypedColumns() {
+        ColumnarRows rows = ColumnarRows.builder()
+                .stringColumn("name").intColumn("qty").longColumn("id").doubleColumn("price")
+                .addRow("Widget", 3, 42L, 9.99)
+                .appendString("Gadget").appendInt(1).appendLong(7L).appendDouble(24.5)
+                .build();
+
+        assertEquals(2, rows.size());
+        assertEquals(RowSchema.of("name", "qty", "id", "price"), rows.schema());
+        assertEquals(ColumnarRows.ColumnType.DOUBLE, rows.columnType(3));
+        assertEquals("Gadget", rows.getString(0, 1));
+        assertEquals(3, rows.getInt(1, 0));
+        assertEquals(7L, rows.getLong(2, 1));
+        assertEquals(9.99, rows.getDouble(3, 0));
+        assertEquals(42L, rows.getValue(2, 0));
+    }
+
+    @Test
+    void shouldEncodeRepeatedStringsOnce() {
+        ColumnarRows.Builder builder = ColumnarRows.builder().stringColumn("region");
+        for (int i = 0; i < 1000; i++) {
+            builder.appendString(i % 2 == 0 ? "north" : "south");
+        }
+        builder.appendString(null);
+
+        ColumnarRows rows = builder.build();
+
+        assertEquals(1001, rows.size());
+        assertEquals(3, rows.dictionarySize(0));
+        assertSame(rows.getString(0, 0), rows.getString(0, 998));
+        assertEquals("", rows.getString(0, 1000));
+    }
+
+    @Test
+    void shouldIterateAsMapViews() {
+        ColumnarRows rows = ColumnarRows.builder()
+                .stringColumn("name").intColumn("qty")
+                .addRow("a", 1)
+                .addRow("b", 2)
+                .build();
+
+        List<Map<String, Object>> maps = new ArrayList<>();
+        rows.forEach(maps::add);
+        List<Map<String, Object>> again = new ArrayList<>();
+        rows.forEach(again::add);
+
+        assertEquals(List.of(Map.of("name", "a", "qty", 1), Map.of("name", "b", "qty", 2)), maps);
+        assertEquals(maps, again);
+        assertEquals("", maps.get(0).getOrDefault("missing", ""));
+    }
+
+    @Test
+    void shouldRejectMismatchedValues() {
+        ColumnarRows.Builder builder = ColumnarRows.builder().intColumn("n").stringColumn("s");
+
+        assertThrows(IllegalArgumentException.class, () -> builder.addRow(1));
+        assertThrows(IllegalArgumentException.class, () -> builder.addRow("x", "y"));
+        assertThrows(IllegalArgumentException.class, () -> builder.appendString("x"));
+        builder.appendInt(1);
+        assertThrows(IllegalStateException.class, builder::build);
+        assertThrows(IllegalStateException.class, () -> builder.intColumn("late"));
+        assertThrows(IllegalArgumentException.class, () -> builder.appendString("s").build().getInt(1, 0));
+    }
+
+    @Test
+    void shouldGrowPastInitialCapacity() {
+        ColumnarRows.Builder builder = ColumnarRows.builder().longColumn("n");
+        for (long i = 0; i < 10_000; i++) {
+            builder.appendLong(i * 3);
+        }
+
+        ColumnarRows rows = builder.build();
+
+        assertEquals(10_000, rows.size());
+        assertEquals(29_997L, rows.getLong(0, 9_999));
+    }
+
+    @Test
+    void shouldRejectDuplicateColumns() {
+        assertThrows(IllegalArgumentException.class, () -> ColumnarRows.builder().intColumn("a").stringColumn("a"));
+        assertThrows(IllegalArgumentException.class, () -> RowSchema.of("a", "a"));
+        assertThrows(IllegalStateException.class, () -> ColumnarRows.builder().build());
+    }
+
+    @Test
+    void shouldLookUpSchemaIndexes() {
+        RowSchema schema = RowSchema.of("a", "b");
+
+        assertArrayEquals(new int[]{1, -1, 0}, schema.indexesOf(new String[]{"b", "c", "a"}));
+    }
+
+    @Test
+    void shouldRejectLossyNumbers() {
+        ColumnarRows.Builder builder = ColumnarRows.builder().intColumn("n").longColumn("l");
+
+        assertThrows(IllegalArgumentException.class, () -> builder.addRow(3.7, 1L));
+        assertThrows(IllegalArgumentException.class, () -> builder.addRow(1L << 31, 1L));
+        assertThrows(IllegalArgumentException.class, () -> builder.addRow(1, new BigDecimal("2.5")));
+        assertThrows(IllegalArgumentException.class, () -> builder.addRow(1, BigInteger.ONE.shiftLeft(63)));
+
+        ColumnarRows rows = builder.addRow((short) 7, Integer.MAX_VALUE).addRow(BigInteger.TWO, Long.MIN_VALUE).build();
+
+        assertEquals(2, rows.size());
+        assertEquals(7, rows.getInt(0, 0));
+        assertEquals(Long.MIN_VALUE, rows.getLong(1, 1));
+    }
+}
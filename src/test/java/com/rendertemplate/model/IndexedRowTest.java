@@ -0,0 +1,48 @@
+package com.rendertemplate.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedRowTest {
+
+    @Test
+    void shouldReadValuesBySlotAndKey() {
+        RowSchema schema = RowSchema.of("name", "qty");
+
+        IndexedRow row = schema.row("Widget", 3);
+
+        assertSame(schema, row.schema());
+        assertEquals("Widget", row.get(0));
+        assertEquals(3, row.get("qty"));
+        assertNull(row.get("missing"));
+    }
+
+    @Test
+    void shouldBehaveAsMapWithoutNullValues() {
+        IndexedRow row = RowSchema.of("a", "b", "c").row(1, null, "x");
+
+        assertEquals(Map.of("a", 1, "c", "x"), row);
+        assertEquals(row, new HashMap<>(Map.of("a", 1, "c", "x")));
+        assertEquals(2, row.size());
+        assertFalse(row.containsKey("b"));
+        assertEquals("", row.getOrDefault("b", ""));
+    }
+
+    @Test
+    void shouldBeReadOnly() {
+        IndexedRow row = RowSchema.of("a").row(1);
+
+        assertThrows(UnsupportedOperationException.class, () -> row.put("a", 2));
+    }
+
+    @Test
+    void shouldRejectWrongNumberOfValues() {
+        RowSchema schema = RowSchema.of("a", "b");
+
+        assertThrows(IllegalArgumentException.class, () -> schema.row(1));
+    }
+}
@@ -0,0 +1,109 @@
+package com.rendertemplate.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderContentTest {
+
+    private final RenderContent content = RenderContent.of(List.of(
+            ByteBuffer.wrap("Caf".getBytes(StandardCharsets.UTF_8)),
+            ByteBuffer.wrap(new byte[]{(byte) 0xC3}),
+            ByteBuffer.wrap(new byte[]{(byte) 0xA9, ' ', 'o', 'k'})));
+
+    @Test
+    void shouldReturnWrappedArrayWithoutCopying() {
+        byte[] bytes = "abc".getBytes(StandardCharsets.UTF_8);
+
+        assertSame(bytes, RenderContent.of(bytes).toByteArray());
+    }
+
+    @Test
+    void shouldJoinChunksOnDemand() {
+        assertEquals(8, content.size());
+        assertEquals("Café ok", new String(content.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals("Café ok", content.asString());
+    }
+
+    @Test
+    void shouldTransferChunksToChannelAndStream() throws IOException {
+        ByteArrayOutputStream viaChannel = new ByteArrayOutputStream();
+        ByteArrayOutputStream viaStream = new ByteArrayOutputStream();
+
+        assertEquals(8, content.transferTo(Channels.newChannel(viaChannel)));
+        assertEquals(8, content.transferTo(viaStream));
+
+        assertArrayEquals(content.toByteArray(), viaChannel.toByteArray());
+        assertArrayEquals(content.toByteArray(), viaStream.toByteArray());
+    }
+
+    @Test
+    void shouldReadAcrossChunksRepeatedly() throws IOException {
+        for (int i = 0; i < 2; i++) {
+            try (InputStream in = content.asInputStream()) {
+                assertArrayEquals(content.toByteArray(), in.readAllBytes());
+                assertEquals(-1, in.read());
+            }
+        }
+    }
+
+    @Test
+    void shouldDecodeCharactersSplitAcrossChunks() throws IOException {
+        StringWriter out = new StringWriter();
+        try (Reader reader = content.asReader()) {
+            reader.transferTo(out);
+        }
+
+        assertEquals("Café ok", out.toString());
+    }
+
+    @Test
+    void shouldNotExposeWritableChunks() {
+        assertTrue(content.chunks().get(0).isReadOnly());
+    }
+
+    @Test
+    void shouldTransferFromBackingArrays() throws IOException {
+        byte[] first = "ab".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "cd".getBytes(StandardCharsets.UTF_8);
+        List<byte[]> written = new ArrayList<>();
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                fail("copied byte by byte");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written.add(b);
+            }
+        };
+
+        RenderContent.of(List.of(ByteBuffer.wrap(first), ByteBuffer.wrap(second))).transferTo(out);
+
+        assertEquals(2, written.size());
+        assertSame(first, written.get(0));
+        assertSame(second, written.get(1));
+    }
+
+    @Test
+    void shouldCopyChunkedContentToArray() {
+        byte[] bytes = "abc".getBytes(StandardCharsets.UTF_8);
+        RenderContent chunked = RenderContent.of(List.of(ByteBuffer.wrap(bytes)));
+
+        assertNotSame(bytes, chunked.toByteArray());
+        assertEquals("abc", chunked.asString());
+    }
+}
@@ -0,0 +1,41 @@
+package com.rendertemplate.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderOutcomeTest {
+
+    @Test
+    void shouldCreateSuccessfulOutcome() {
+        RenderResult result = new RenderResult("content".getBytes(), RenderFormat.HTML, "report");
+
+        RenderOutcome outcome = RenderOutcome.success(3, result);
+
+        assertTrue(outcome.isSuccess());
+        assertEquals(3, outcome.index());
+        assertEquals("report", outcome.templateName());
+        assertSame(result, outcome.getOrThrow());
+    }
+
+    @Test
+    void shouldRethrowFailure() {
+        IllegalStateException error = new IllegalStateException("boom");
+
+        RenderOutcome outcome = RenderOutcome.failure(0, "report", error);
+
+        assertFalse(outcome.isSuccess());
+        assertNull(outcome.result());
+        assertSame(error, assertThrows(IllegalStateException.class, outcome::getOrThrow));
+    }
+
+    @Test
+    void shouldRequireExactlyOneOfResultAndError() {
+        RenderResult result = new RenderResult("content".getBytes(), RenderFormat.HTML, "report");
+
+        assertThrows(IllegalArgumentException.class, () ->
+                new RenderOutcome(0, "report", null, null));
+        assertThrows(IllegalArgumentException.class, () ->
+                new RenderOutcome(0, "report", result, new IllegalStateException()));
+    }
+}
@@ -2,6 +2,11 @@ package com.rendertemplate.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class RenderResultTest {
@@ -61,4 +66,27 @@ class RenderResultTest {
         assertThrows(IllegalArgumentException.class, () ->
                 new RenderResult("content".getBytes(), RenderFormat.HTML, "   "));
     }
+
+    @Test
+    void shouldExposeChunkedContentWithoutCopying() throws IOException {
+        ChunkedOutputStream out = new ChunkedOutputStream(4);
+        out.write("Hello Wörld".getBytes(StandardCharsets.UTF_8));
+        RenderResult result = RenderResult.of(out.toContent(), RenderFormat.CSV, "test");
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        result.transferTo(Channels.newChannel(written));
+
+        assertEquals(12, result.size());
+        assertEquals("Hello Wörld", result.contentAsString());
+        assertEquals("Hello Wörld", written.toString(StandardCharsets.UTF_8));
+        assertArrayEquals(written.toByteArray(), result.asInputStream().readAllBytes());
+        assertArrayEquals(written.toByteArray(), result.content());
+    }
+
+    @Test
+    void shouldDecodeContentAsUtf8() {
+        RenderResult result = new RenderResult("Café".getBytes(StandardCharsets.UTF_8), RenderFormat.HTML, "test");
+
+        assertEquals("Café", result.contentAsString());
+    }
 }
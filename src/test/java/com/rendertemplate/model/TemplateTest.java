@@ -1,9 +1,16 @@
 package com.rendertemplate.model;
 
+import com.rendertemplate.format.ValueFormat;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -136,4 +143,106 @@ class TemplateTest {
         assertThrows(UnsupportedOperationException.class, () ->
                 template.getSections().add(new TemplateSection.Heading("extra")));
     }
+
+    @Test
+    void shouldUseRowsDataListAsRowSource() {
+        Template template = Template.builder()
+                .name("test")
+                .heading("content")
+                .data("rows", List.of(Map.of("a", 1), "not a row", Map.of("a", 2)))
+                .build();
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        template.getRows().forEach(rows::add);
+
+        assertEquals(List.of(Map.of("a", 1), Map.of("a", 2)), rows);
+    }
+
+    @Test
+    void shouldUseDataAsSingleRowWhenNoRowsGiven() {
+        Template template = Template.builder()
+                .name("test")
+                .heading("content")
+                .data("a", 1)
+                .build();
+
+        Iterator<Map<String, Object>> rows = template.getRows().iterator();
+
+        assertEquals(Map.of("a", 1), rows.next());
+        assertFalse(rows.hasNext());
+    }
+
+    @Test
+    void shouldPreferExplicitRowSource() {
+        RowSource source = RowSource.of(List.of(Map.of("a", 1)));
+        Template template = Template.builder()
+                .name("test")
+                .heading("content")
+                .data("rows", List.of(Map.of("a", 2)))
+                .rows(source)
+                .build();
+
+        assertSame(source, template.getRows());
+    }
+
+    @Test
+    void shouldIterateReusableRowSourceRepeatedly() {
+        RowSource source = RowSource.fromStream(() -> IntStream.range(0, 3).mapToObj(i -> Map.of("i", i)));
+
+        assertEquals(3, StreamSupport.stream(source.spliterator(), false).count());
+        assertEquals(3, StreamSupport.stream(source.spliterator(), false).count());
+    }
+
+    @Test
+    void shouldRejectSecondIterationOfSingleUseRowSource() {
+        Template template = Template.builder()
+                .name("test")
+                .heading("content")
+                .rows(Stream.of(Map.<String, Object>of("a", 1)))
+                .build();
+
+        template.getRows().iterator();
+
+        assertThrows(IllegalStateException.class, () -> template.getRows().iterator());
+    }
+
+    @Test
+    void shouldReportKnownRowCount() {
+        Template listRows = Template.builder().name("t").heading("h").data("rows", List.of(Map.of(), Map.of())).build();
+        Template singleRow = Template.builder().name("t").heading("h").data("a", 1).build();
+        Template sourceRows = Template.builder().name("t").heading("h").rows(RowSource.of(List.of())).build();
+
+        assertEquals(2, listRows.knownRowCount());
+        assertEquals(1, singleRow.knownRowCount());
+        assertEquals(-1, sourceRows.knownRowCount());
+    }
+
+    @Test
+    void shouldKnowColumnarRowCount() {
+        ColumnarRows rows = ColumnarRows.builder().intColumn("n").addRow(1).addRow(2).addRow(3).build();
+
+        Template template = Template.builder().name("t").heading("h").rows(rows).build();
+
+        assertEquals(3, template.knownRowCount());
+        assertTrue(template.hasRowSource());
+    }
+
+    @Test
+    void shouldKeepValueFormatsPerKey() {
+        ValueFormat money = ValueFormat.decimal(2);
+
+        Template template = Template.builder().name("t").heading("{{amount}}").format("amount", money).build();
+
+        assertEquals(Map.of("amount", money), template.getFormats());
+        assertThrows(UnsupportedOperationException.class, () -> template.getFormats().put("x", money));
+    }
+
+    @Test
+    void shouldDefaultLocaleToFormatLocale() {
+        Template template = Template.builder().name("t").heading("h").build();
+        Template german = Template.builder().name("t").heading("h").locale(Locale.GERMANY).build();
+
+        assertEquals(Locale.getDefault(Locale.Category.FORMAT), template.getLocale());
+        assertEquals(Locale.GERMANY, german.getLocale());
+    }
 }
@@ -0,0 +1,67 @@
+package com.rendertemplate.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferPoolTest {
+
+    @Test
+    void shouldReuseReleasedBuffersEmptied() {
+        BufferPool pool = new BufferPool(2, 1024);
+
+        Utf8Buffer buffer = pool.acquire(64).append("stale");
+        pool.release(buffer);
+        Utf8Buffer reused = pool.acquire(128);
+
+        assertSame(buffer, reused);
+        assertEquals(0, reused.length());
+        assertTrue(reused.capacity() >= 128);
+    }
+
+    @Test
+    void shouldDropBuffersAboveSizeCap() {
+        BufferPool pool = new BufferPool(2, 1024);
+
+        pool.release(new Utf8Buffer(4096));
+
+        assertEquals(0, pool.idleCount());
+    }
+
+    @Test
+    void shouldDropBuffersBeyondMaxIdle() {
+        BufferPool pool = new BufferPool(1, 1024);
+
+        pool.release(pool.acquire(16));
+        pool.release(new Utf8Buffer(16));
+
+        assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    void shouldHandOutDistinctBuffersAcrossVirtualThreads() throws Exception {
+        BufferPool pool = new BufferPool(4, 1024);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?>[] tasks = new Future<?>[200];
+            for (int i = 0; i < tasks.length; i++) {
+                String text = "task-" + i;
+                tasks[i] = executor.submit(() -> {
+                    Utf8Buffer buffer = pool.acquire(32);
+                    buffer.append(text);
+                    Thread.yield();
+                    assertEquals(text, buffer.toString());
+                    pool.release(buffer);
+                    return null;
+                });
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        }
+        assertTrue(pool.idleCount() <= 4);
+    }
+}
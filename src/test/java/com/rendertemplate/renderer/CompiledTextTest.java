@@ -0,0 +1,132 @@
+package com.rendertemplate.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledTextTest {
+
+    @Test
+    void shouldResolveSinglePlaceholder() {
+        CompiledText text = CompiledText.compile("Hello {{name}}!");
+
+        assertEquals("Hello World!", text.resolve(Map.of("name", "World")));
+        assertFalse(text.isStatic());
+    }
+
+    @Test
+    void shouldResolveAdjacentPlaceholders() {
+        CompiledText text = CompiledText.compile("{{a}}{{b}}");
+
+        assertEquals("12", text.resolve(Map.of("a", 1, "b", 2)));
+    }
+
+    @Test
+    void shouldKeepStaticTextUnchanged() {
+        CompiledText text = CompiledText.compile("No placeholders");
+
+        assertTrue(text.isStatic());
+        assertEquals("No placeholders", text.resolve(Map.of()));
+    }
+
+    @Test
+    void shouldResolveMissingKeysToEmptyString() {
+        CompiledText text = CompiledText.compile("Value: {{missing}}");
+
+        assertEquals("Value: ", text.resolve(Map.of()));
+    }
+
+    @Test
+    void shouldTreatMalformedPlaceholdersAsLiterals() {
+        assertEquals("{{ a }}", CompiledText.compile("{{ a }}").resolve(Map.of("a", "x")));
+        assertEquals("{{}}", CompiledText.compile("{{}}").resolve(Map.of()));
+        assertEquals("{{a}", CompiledText.compile("{{a}").resolve(Map.of("a", "x")));
+        assertEquals("{x", CompiledText.compile("{{{a}}").resolve(Map.of("a", "x")));
+    }
+
+    @Test
+    void shouldApplyEscaperToValuesOnly() {
+        CompiledText text = CompiledText.compile("<{{v}}>");
+
+        assertEquals("<[x]>", text.resolve(Map.of("v", "x"), Escaper.of(v -> "[" + v + "]")));
+    }
+
+    @Test
+    void shouldNotInterpretReplacementSpecialCharacters() {
+        CompiledText text = CompiledText.compile("{{v}}");
+
+        assertEquals("$1 \\ $", text.resolve(Map.of("v", "$1 \\ $")));
+    }
+
+    @Test
+    void shouldAppendToExistingBuilder() {
+        StringBuilder sb = new StringBuilder("row:");
+
+        CompiledText.compile("{{a}}-{{b}}").appendTo(sb, Map.of("a", "x", "b", "y"), Escaper.none());
+
+        assertEquals("row:x-y", sb.toString());
+    }
+
+    @Test
+    void shouldCompileAllInOrder() {
+        CompiledText[] compiled = CompiledText.compileAll(List.of("{{a}}", "b"));
+
+        assertEquals(2, compiled.length);
+        assertEquals("{{a}}", compiled[0].source());
+        assertEquals("b", compiled[1].source());
+    }
+
+    @Test
+    void shouldParseFormatDirectives() {
+        CompiledText text = CompiledText.compile("{{amount:#,##0.00}} on {{day:dd/MM/yyyy}} by {{who}}");
+
+        assertArrayEquals(new String[] {"amount", "day", "who"}, text.keys());
+        assertArrayEquals(new String[] {"#,##0.00", "dd/MM/yyyy", null}, text.directives());
+        assertEquals("1,234.50 on 09/01/2026 by x", text.resolve(
+                Map.of("amount", 1234.5, "day", LocalDate.of(2026, 1, 9), "who", "x"), Escaper.none(), Locale.US));
+    }
+
+    @Test
+    void shouldEscapeFormattedDirectiveValues() {
+        CompiledText text = CompiledText.compile("{{price:currency}}");
+
+        assertEquals("&lt;1&gt;", text.resolve(Map.of("price", "<1>"), Escaper.html(), Locale.US));
+        assertEquals("1.234,50\u00a0€", text.resolve(Map.of("price", 1234.5), Escaper.html(), Locale.GERMANY));
+    }
+
+    @Test
+    void shouldTreatMalformedDirectivesAsLiterals() {
+        assertEquals("{{a:}}", CompiledText.compile("{{a:}}").resolve(Map.of("a", 1)));
+        assertEquals("{{:x}}", CompiledText.compile("{{:x}}").resolve(Map.of("a", 1)));
+        assertEquals("{{a:x}", CompiledText.compile("{{a:x}").resolve(Map.of("a", 1)));
+        assertEquals("{{a:{x}}", CompiledText.compile("{{a:{x}}").resolve(Map.of("a", 1)));
+    }
+
+    @Test
+    void shouldReportInvalidDirectivesAsRenderFailures() {
+        CompiledText text = CompiledText.compile("{{day:yyyy-bb}}");
+
+        RenderException e = assertThrows(RenderException.class,
+                () -> text.resolve(Map.of("day", LocalDate.of(2026, 1, 9)), Escaper.none(), Locale.US));
+
+        assertTrue(e.getMessage().contains("'yyyy-bb'") && e.getMessage().contains("'day'"), e.getMessage());
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    void shouldReportMissingTemporalFieldsAsRenderFailures() {
+        CompiledText text = CompiledText.compile("at {{day:HH:mm}}");
+
+        RenderException e = assertThrows(RenderException.class,
+                () -> text.resolve(Map.of("day", LocalDate.of(2026, 1, 9)), Escaper.none(), Locale.US));
+
+        assertTrue(e.getMessage().contains("'HH:mm'") && e.getMessage().contains("'day'"), e.getMessage());
+        assertInstanceOf(DateTimeException.class, e.getCause());
+    }
+}
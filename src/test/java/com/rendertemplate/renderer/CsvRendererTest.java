@@ -1,13 +1,22 @@
 package com.rendertemplate.renderer;
 
+import com.rendertemplate.format.ValueFormat;
+import com.rendertemplate.model.ColumnarRows;
 import com.rendertemplate.model.RenderFormat;
 import com.rendertemplate.model.RenderResult;
+import com.rendertemplate.model.RowSource;
 import com.rendertemplate.model.Template;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -201,4 +210,94 @@ class CsvRendererTest {
 
         assertEquals("name,age\nAlice,\n,25", result.contentAsString());
     }
+
+    @Test
+    void shouldStreamSameContentAsInMemoryRender() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            rows.add(Map.of("name", "User " + i, "note", "a, \"b\""));
+        }
+        Template template = Template.builder()
+                .name("large")
+                .table(List.of("name", "note"), List.of("{{name}}", "{{note}}"))
+                .data("rows", rows)
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(template, out);
+
+        assertArrayEquals(renderer.render(template).content(), out.toByteArray());
+    }
+
+    @Test
+    void shouldNotWriteAnythingWhenNoTableSection() {
+        Template template = Template.builder()
+                .name("no-table")
+                .heading("Just a heading")
+                .build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(RenderException.class, () -> renderer.render(template, out));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void shouldRenderRowsPulledFromLazySource() {
+        int[] produced = {0};
+        Template template = Template.builder()
+                .name("lazy")
+                .table(List.of("n"), List.of("{{n}}"))
+                .rows(Stream.iterate(1, i -> i <= 3, i -> i + 1)
+                        .peek(i -> produced[0]++)
+                        .map(i -> Map.<String, Object>of("n", i)))
+                .build();
+
+        RenderResult result = renderer.render(template);
+
+        assertEquals("n\n1\n2\n3", result.contentAsString());
+        assertEquals(3, produced[0]);
+    }
+
+    @Test
+    void shouldRenderRowBlocksInParallelWithSameOutput() {
+        Template template = Template.builder()
+                .name("export")
+                .table(List.of("Id", "Note"), List.of("{{id}}", "{{note}}"))
+                .rows(RowSource.fromStream(() -> IntStream.range(0, 5000)
+                        .mapToObj(i -> Map.<String, Object>of("id", i, "note", i % 7 == 0 ? "a,\"b\"" : "n" + i))))
+                .build();
+        CsvRenderer parallel = new CsvRenderer(new ParallelRowOptions(ForkJoinPool.commonPool(), 1000, 256));
+
+        String expected = renderer.render(template).contentAsString();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        parallel.render(template, out);
+
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+        assertEquals(expected, parallel.render(template).contentAsString());
+    }
+
+    @Test
+    void shouldRejectInvalidParallelRowOptions() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelRowOptions(ForkJoinPool.commonPool(), -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelRowOptions(ForkJoinPool.commonPool(), 0, 0));
+        assertThrows(NullPointerException.class, () -> ParallelRowOptions.of(null, 10));
+    }
+
+    @Test
+    void shouldWriteValuesWithPlaceholderFormats() {
+        Template template = Template.builder()
+                .name("ledger")
+                .table(List.of("date", "amount", "count"), List.of("{{date}}", "{{amount}}", "{{count}}"))
+                .rows(ColumnarRows.builder()
+                        .stringColumn("date").doubleColumn("amount").intColumn("count")
+                        .addRow("2026-01-02", 1234.5, 3)
+                        .build())
+                .format("amount", ValueFormat.decimal(2, ',', '.'))
+                .format("count", ValueFormat.decimal(1))
+                .build();
+
+        RenderResult result = renderer.render(template);
+
+        assertEquals("date,amount,count\n2026-01-02,\"1,234.50\",3.0", result.contentAsString());
+    }
 }
@@ -0,0 +1,89 @@
+package com.rendertemplate.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EscaperTest {
+
+    @Test
+    void shouldReturnSameInstanceWhenNothingToEscape() {
+        String value = "plain text 123";
+
+        assertSame(value, Escaper.html().escape(value));
+        assertSame(value, Escaper.csv().escape(value));
+        assertSame(value, Escaper.none().escape(value));
+    }
+
+    @Test
+    void shouldEscapeAllHtmlSpecialCharsInOnePass() {
+        assertEquals("&lt;a href=&quot;x&quot;&gt;Tom &amp; Jerry&#39;s&lt;/a&gt;",
+                Escaper.html().escape("<a href=\"x\">Tom & Jerry's</a>"));
+    }
+
+    @Test
+    void shouldNotDoubleEscapeHtmlEntities() {
+        assertEquals("&amp;lt;", Escaper.html().escape("&lt;"));
+    }
+
+    @Test
+    void shouldLeaveNonAsciiCharactersUnchanged() {
+        assertEquals("Zoë &amp; 東京", Escaper.html().escape("Zoë & 東京"));
+    }
+
+    @Test
+    void shouldQuoteCsvValuesWithSpecialChars() {
+        assertEquals("\"a,b\"", Escaper.csv().escape("a,b"));
+        assertEquals("\"line1\r\nline2\"", Escaper.csv().escape("line1\r\nline2"));
+        assertEquals("\"say \"\"hi\"\"\"", Escaper.csv().escape("say \"hi\""));
+    }
+
+    @Test
+    void shouldEscapeStraightIntoBuffer() {
+        StringBuilder out = new StringBuilder("<td>");
+
+        Escaper.html().escapeTo("1 < 2", out);
+        Escaper.csv().escapeTo("x,y", out);
+
+        assertEquals("<td>1 &lt; 2\"x,y\"", out.toString());
+    }
+
+    @Test
+    void shouldAdaptStringFunction() {
+        Escaper upper = Escaper.of(String::toUpperCase);
+        StringBuilder out = new StringBuilder();
+
+        upper.escapeTo("abc", out);
+
+        assertEquals("ABC", out.toString());
+        assertEquals("DEF", upper.escape("def"));
+    }
+
+    @Test
+    void shouldEscapeIntoUtf8BufferLikeIntoStringBuilder() {
+        String value = "<Café \"x\", 'y' & z>\n€";
+
+        for (Escaper escaper : new Escaper[]{Escaper.none(), Escaper.html(), Escaper.csv(), Escaper.of(String::trim)}) {
+            Utf8Buffer out = new Utf8Buffer();
+            escaper.escapeTo(value, out);
+
+            assertEquals(escaper.escape(value), out.toString());
+        }
+    }
+
+    @Test
+    void shouldEscapeCharSequencesLikeStrings() {
+        StringBuilder value = new StringBuilder("a,<\"b\">");
+
+        for (Escaper escaper : List.of(Escaper.none(), Escaper.html(), Escaper.csv(), Escaper.of(v -> "[" + v + "]"))) {
+            StringBuilder chars = new StringBuilder();
+            Utf8Buffer bytes = new Utf8Buffer();
+            escaper.escapeTo((CharSequence) value, chars);
+            escaper.escapeTo((CharSequence) value, bytes);
+            assertEquals(escaper.escape(value.toString()), chars.toString());
+            assertEquals(escaper.escape(value.toString()), bytes.toString());
+        }
+    }
+}
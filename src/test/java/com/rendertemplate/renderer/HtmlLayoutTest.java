@@ -0,0 +1,54 @@
+package com.rendertemplate.renderer;
+
+import com.rendertemplate.model.TemplateSection;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlLayoutTest {
+
+    @Test
+    void shouldFoldMarkupIntoLiteralFragments() {
+        HtmlLayout layout = HtmlLayout.compile(List.of(
+                new TemplateSection.Heading("Hello {{name}}!"),
+                new TemplateSection.Paragraph("Static")), Escaper.html());
+
+        assertEquals(List.of("<h1>Hello ", "!</h1>"), strings(layout.fragments(0)));
+        assertEquals(List.of("<p>Static</p>"), strings(layout.fragments(1)));
+        assertNull(layout.tableHead(0));
+    }
+
+    @Test
+    void shouldPrecomputeTableHeadAndRowFragments() {
+        HtmlLayout layout = HtmlLayout.compile(List.of(new TemplateSection.Table(
+                List.of("Name & Co", "Café"), List.of("{{first}} {{last}}", "#{{id}}", "fixed"))), Escaper.html());
+
+        assertEquals("<table><thead><tr><th>Name &amp; Co</th><th>Café</th></tr></thead><tbody>",
+                new String(layout.tableHead(0), StandardCharsets.UTF_8));
+        assertEquals(List.of("<tr><td>", " ", "</td><td>#", "</td><td>fixed</td></tr>"), strings(layout.fragments(0)));
+    }
+
+    @Test
+    void shouldSpliceValuesBetweenFragments() {
+        HtmlLayout layout = HtmlLayout.compile(List.of(new TemplateSection.Table(
+                List.of(), List.of("{{a}}{{b}}", "{{c}}"))), Escaper.html());
+        ResolvedText[] cells = ResolvedText.of(CompiledText.compileAll(List.of("{{a}}{{b}}", "{{c}}")));
+        for (ResolvedText cell : cells) {
+            cell.bind(Map.of("a", "<", "b", 1, "c", "ü"));
+        }
+        Utf8Buffer out = new Utf8Buffer();
+
+        HtmlLayout.splice(out, layout.fragments(0), cells, Escaper.html());
+
+        assertEquals("<tr><td>&lt;1</td><td>ü</td></tr>", out.toString());
+    }
+
+    private static List<String> strings(byte[][] fragments) {
+        return Arrays.stream(fragments).map(f -> new String(f, StandardCharsets.UTF_8)).toList();
+    }
+}
@@ -1,13 +1,26 @@
 package com.rendertemplate.renderer;
 
+import com.rendertemplate.format.ValueFormat;
 import com.rendertemplate.model.RenderFormat;
 import com.rendertemplate.model.RenderResult;
+import com.rendertemplate.model.RowSource;
 import com.rendertemplate.model.Template;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -217,4 +230,223 @@ class HtmlRendererTest {
 
         assertTrue(result.contentAsString().contains("&lt;b&gt;bold&lt;/b&gt;"));
     }
+
+    @Test
+    void shouldStreamSameContentAsInMemoryRender() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            rows.add(Map.of("name", "Zoë <" + i + ">"));
+        }
+        Template template = Template.builder()
+                .name("large")
+                .heading("Report")
+                .table(List.of("Name"), List.of("{{name}}"))
+                .data("rows", rows)
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(template, out);
+
+        assertArrayEquals(renderer.render(template).content(), out.toByteArray());
+    }
+
+    @Test
+    void shouldStreamToChannel() {
+        Template template = Template.builder()
+                .name("page")
+                .heading("{{title}}")
+                .data("title", "Hello")
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(template, Channels.newChannel(out));
+
+        assertEquals("<html><body><h1>Hello</h1></body></html>", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldRenderRowsFromRowSource() {
+        Template template = Template.builder()
+                .name("report")
+                .table(List.of("Name"), List.of("{{name}}"))
+                .rows(RowSource.fromStream(() -> Stream.of(Map.of("name", "Alice"), Map.of("name", "Bob"))))
+                .build();
+
+        String html = renderer.render(template).contentAsString();
+
+        assertTrue(html.contains("<tbody><tr><td>Alice</td></tr><tr><td>Bob</td></tr></tbody>"));
+    }
+
+    @Test
+    void shouldUseOverriddenEscapeHtmlInSubclass() {
+        HtmlRenderer custom = new HtmlRenderer() {
+            @Override
+            protected String escapeHtml(String value) {
+                return value.toUpperCase();
+            }
+        };
+        Template template = Template.builder()
+                .name("page")
+                .paragraph("{{val}}")
+                .data("val", "<b>")
+                .build();
+
+        assertEquals("<html><body><p><B></p></body></html>", custom.render(template).contentAsString());
+    }
+
+    @Test
+    void shouldRenderRowBlocksInParallelWithSameOutput() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(Map.of("name", "Name <" + i + ">", "city", "Café & " + i));
+        }
+        Template template = Template.builder()
+                .name("report")
+                .heading("Users")
+                .table(List.of("Name", "City"), List.of("<b>{{name}}</b>", "{{city}}"))
+                .table(List.of("Name"), List.of("{{name}}"))
+                .paragraph("End")
+                .data("rows", rows)
+                .build();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            HtmlRenderer parallel = new HtmlRenderer(new ParallelRowOptions(pool, 100, 64));
+
+            assertEquals(renderer.render(template).contentAsString(), parallel.render(template).contentAsString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void shouldPropagateEscapeFailuresFromRowBlocks() {
+        HtmlRenderer failing = new HtmlRenderer(new ParallelRowOptions(ForkJoinPool.commonPool(), 0, 8)) {
+            @Override
+            protected String escapeHtml(String value) {
+                if (value.equals("bad")) {
+                    throw new IllegalStateException("cannot escape");
+                }
+                return value;
+            }
+        };
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rows.add(Map.of("v", i == 30 ? "bad" : "ok"));
+        }
+        Template template = Template.builder()
+                .name("report")
+                .table(List.of("V"), List.of("{{v}}"))
+                .data("rows", rows)
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> failing.render(template));
+    }
+
+    @Test
+    void shouldEscapeFormattedValues() {
+        Template template = Template.builder()
+                .name("prices")
+                .heading("Total {{total}} on {{day}}")
+                .data("total", new BigDecimal("1234567.891"))
+                .data("day", LocalDate.of(2026, 3, 4))
+                .format("total", ValueFormat.decimal(2, '\'', '.'))
+                .format("day", ValueFormat.temporal(DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH)))
+                .build();
+
+        RenderResult result = renderer.render(template);
+
+        assertEquals("<html><body><h1>Total 1&#39;234&#39;567.89 on 4 Mar 2026</h1></body></html>",
+                result.contentAsString());
+    }
+
+    @Test
+    void shouldApplyFormatDirectivesInEverySection() {
+        Template template = Template.builder()
+                .name("invoice")
+                .locale(Locale.US)
+                .heading("Due {{due:MMMM d, yyyy}}")
+                .table(List.of("Item", "Price"), List.of("{{item}}", "{{price:currency}}"))
+                .data("due", LocalDate.of(2026, 2, 1))
+                .rows(List.of(Map.of("item", "Pen & ink", "price", 1234.5), Map.of("item", "Nib", "price", 0.25)))
+                .build();
+
+        String html = renderer.render(template).contentAsString();
+
+        assertTrue(html.contains("<h1>Due February 1, 2026</h1>"), html);
+        assertTrue(html.contains("<td>Pen &amp; ink</td><td>$1,234.50</td>"), html);
+        assertTrue(html.contains("<td>Nib</td><td>$0.25</td>"), html);
+    }
+
+    @Test
+    void shouldReuseLayoutForNewData() {
+        Template.Builder layout = Template.builder()
+                .name("report")
+                .heading("Report for {{who}}")
+                .paragraph("Static intro")
+                .table(List.of("<Name>", "Total"), List.of("{{name}}", "{{qty}} x {{price}}"));
+
+        String first = renderer.render(layout.data("who", "A & B")
+                .rows(List.of(Map.of("name", "x", "qty", 1, "price", 2))).build()).contentAsString();
+        String second = renderer.render(Template.builder()
+                .name("report")
+                .heading("Report for {{who}}")
+                .paragraph("Static intro")
+                .table(List.of("<Name>", "Total"), List.of("{{name}}", "{{qty}} x {{price}}"))
+                .data("who", "C")
+                .rows(List.of(Map.of("name", "<y>", "qty", 3, "price", 4), Map.of("name", "z")))
+                .build()).contentAsString();
+
+        assertEquals("<html><body><h1>Report for A &amp; B</h1><p>Static intro</p>"
+                + "<table><thead><tr><th>&lt;Name&gt;</th><th>Total</th></tr></thead><tbody>"
+                + "<tr><td>x</td><td>1 x 2</td></tr></tbody></table></body></html>", first);
+        assertEquals("<html><body><h1>Report for C</h1><p>Static intro</p>"
+                + "<table><thead><tr><th>&lt;Name&gt;</th><th>Total</th></tr></thead><tbody>"
+                + "<tr><td>&lt;y&gt;</td><td>3 x 4</td></tr><tr><td>z</td><td> x </td></tr></tbody></table></body></html>",
+                second);
+    }
+
+    @Test
+    void shouldFailRenderOnInvalidDirective() {
+        Template template = Template.builder()
+                .name("report")
+                .table(List.of("Day"), List.of("{{day:yyyy-bb}}"))
+                .rows(List.of(Map.of("day", LocalDate.of(2026, 1, 9))))
+                .build();
+
+        RenderException e = assertThrows(RenderException.class, () -> renderer.render(template));
+
+        assertTrue(e.getMessage().contains("yyyy-bb"), e.getMessage());
+    }
+
+    @Test
+    void shouldFailRenderWhenValueLacksDirectiveField() {
+        Template template = Template.builder()
+                .name("report")
+                .heading("Due {{due:HH:mm}}")
+                .data("due", LocalDate.of(2026, 1, 9))
+                .build();
+
+        RenderException e = assertThrows(RenderException.class, () -> renderer.render(template));
+
+        assertTrue(e.getMessage().contains("'due'"), e.getMessage());
+        assertInstanceOf(DateTimeException.class, e.getCause());
+    }
+
+    @Test
+    void shouldNotBeAffectedByMutatingListsAfterBuild() {
+        List<String> headers = new ArrayList<>(List.of("Name"));
+        List<String> columns = new ArrayList<>(List.of("{{name}}"));
+        Template template = Template.builder()
+                .name("people")
+                .table(headers, columns)
+                .data("name", "Ann")
+                .build();
+        String before = renderer.render(template).contentAsString();
+
+        headers.set(0, "Changed");
+        columns.set(0, "{{other}}");
+
+        assertEquals(before, renderer.render(template).contentAsString());
+        assertTrue(before.contains("<th>Name</th>") && before.contains("<td>Ann</td>"), before);
+    }
 }
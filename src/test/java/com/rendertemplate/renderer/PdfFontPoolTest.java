@@ -0,0 +1,40 @@
+package com.rendertemplate.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfFontPoolTest {
+
+    @Test
+    void shouldReuseReleasedFonts() {
+        PdfFontPool pool = new PdfFontPool(2);
+
+        PdfFontPool.Fonts fonts = pool.acquire();
+        pool.release(fonts);
+
+        assertSame(fonts, pool.acquire());
+    }
+
+    @Test
+    void shouldNotHandOutSameFontsTwiceConcurrently() {
+        PdfFontPool pool = new PdfFontPool(2);
+
+        PdfFontPool.Fonts first = pool.acquire();
+        PdfFontPool.Fonts second = pool.acquire();
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void shouldDropFontsBeyondMaxIdle() {
+        PdfFontPool pool = new PdfFontPool(1);
+
+        PdfFontPool.Fonts first = pool.acquire();
+        PdfFontPool.Fonts second = pool.acquire();
+        pool.release(first);
+        pool.release(second);
+
+        assertEquals(1, pool.idleCount());
+    }
+}
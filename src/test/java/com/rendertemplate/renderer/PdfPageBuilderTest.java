@@ -0,0 +1,24 @@
+package com.rendertemplate.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfPageBuilderTest {
+
+    @Test
+    void shouldFormatNumbersInPdfSyntax() {
+        assertEquals("12", format(12f));
+        assertEquals("-16", format(-16f));
+        assertEquals("0", format(0f));
+        assertEquals("791.89", format(791.89f));
+        assertEquals("-0.5", format(-0.5f));
+        assertEquals("247.7633", format(247.76334f));
+    }
+
+    private static String format(float value) {
+        Utf8Buffer out = new Utf8Buffer();
+        PdfPageBuilder.appendNumber(out, value);
+        return out.toString();
+    }
+}
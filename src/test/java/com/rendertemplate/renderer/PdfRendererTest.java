@@ -1,17 +1,36 @@
 package com.rendertemplate.renderer;
 
+import com.rendertemplate.model.ColumnarRows;
 import com.rendertemplate.model.RenderFormat;
 import com.rendertemplate.model.RenderResult;
 import com.rendertemplate.model.Template;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.pdfparser.PDFStreamParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -175,6 +194,285 @@ class PdfRendererTest {
         assertTrue(text.contains("Alice"));
     }
 
+    @Test
+    void shouldStreamPdfWithoutClosingCallerStream() throws IOException {
+        Template template = Template.builder()
+                .name("doc")
+                .heading("Hello {{name}}")
+                .data("name", "World")
+                .build();
+        boolean[] closed = {false};
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        renderer.render(template, out);
+
+        assertFalse(closed[0]);
+        assertTrue(extractText(out.toByteArray()).contains("Hello World"));
+    }
+
+    @Test
+    void shouldReuseFontsAcrossDocuments() throws IOException {
+        Template template = Template.builder()
+                .name("doc")
+                .heading("Hello {{name}}")
+                .data("name", "World")
+                .build();
+
+        RenderResult first = renderer.render(template);
+        RenderResult second = renderer.render(template);
+
+        assertEquals(1, renderer.fontPool().idleCount());
+        assertTrue(extractText(first.content()).contains("Hello World"));
+        assertTrue(extractText(second.content()).contains("Hello World"));
+    }
+
+    @Test
+    void shouldRenderConcurrentlyWithSharedFontPool() throws Exception {
+        List<Callable<RenderResult>> tasks = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Template template = Template.builder()
+                    .name("doc" + i)
+                    .table(List.of("Name"), List.of("{{name}}"))
+                    .data("name", "User " + i)
+                    .build();
+            tasks.add(() -> renderer.render(template));
+        }
+
+        List<Future<RenderResult>> results;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results = executor.invokeAll(tasks);
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            assertTrue(extractText(results.get(i).get().content()).contains("User " + i));
+        }
+    }
+
+    @Test
+    void shouldEmitOneTextObjectPerPageAndOnlyChangeFontWhenNeeded() throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(Map.of("a", "A" + i, "b", "B" + i, "c", "C" + i));
+        }
+        Template template = Template.builder()
+                .name("doc")
+                .heading("Title")
+                .table(List.of("A", "B", "C"), List.of("{{a}}", "{{b}}", "{{c}}"))
+                .data("rows", rows)
+                .build();
+
+        RenderResult result = renderer.render(template);
+
+        try (PDDocument doc = Loader.loadPDF(result.content())) {
+            Map<String, Integer> operators = countOperators(doc.getPage(0));
+            assertEquals(1, operators.get("BT"));
+            assertEquals(1, operators.get("ET"));
+            // heading (bold 18), header row (bold 12), data rows (regular 12)
+            assertEquals(3, operators.get("Tf"));
+            assertEquals(1 + 3 + 30, operators.get("Tj"));
+            assertEquals(1 + 3 + 30, operators.get("Td"));
+        }
+        String text = extractText(result.content());
+        assertTrue(text.contains("A9"));
+        assertTrue(text.contains("C9"));
+    }
+
+    @Test
+    void shouldStartNewTextObjectOnEachPage() throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(Map.of("n", "Row " + i));
+        }
+        Template template = Template.builder()
+                .name("doc")
+                .table(List.of("N"), List.of("{{n}}"))
+                .data("rows", rows)
+                .build();
+
+        RenderResult result = renderer.render(template);
+
+        try (PDDocument doc = Loader.loadPDF(result.content())) {
+            assertTrue(doc.getNumberOfPages() > 1);
+            for (PDPage page : doc.getPages()) {
+                assertEquals(1, countOperators(page).get("BT"));
+            }
+        }
+        assertTrue(extractText(result.content()).contains("Row 99"));
+    }
+
+    private Map<String, Integer> countOperators(PDPage page) throws IOException {
+        Map<String, Integer> counts = new HashMap<>();
+        PDFStreamParser parser = new PDFStreamParser(page);
+        for (Object token = parser.parseNextToken(); token != null; token = parser.parseNextToken()) {
+            if (token instanceof Operator operator) {
+                counts.merge(operator.getName(), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    @Test
+    void shouldSpillPageContentToScratchFilesWithinBudget(@TempDir Path scratch) throws IOException {
+        PdfRenderer budgeted = new PdfRenderer(0, scratch);
+        long[] scratchFilesDuringRender = {0};
+        Iterator<Map<String, Object>> rows = IntStream.range(0, 500)
+                .mapToObj(i -> {
+                    if (i == 499) {
+                        scratchFilesDuringRender[0] = countFiles(scratch);
+                    }
+                    return Map.<String, Object>of("n", "Row " + i);
+                })
+                .iterator();
+        Template template = Template.builder()
+                .name("doc")
+                .table(List.of("N"), List.of("{{n}}"))
+                .rows(rows)
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        budgeted.render(template, out);
+
+        assertTrue(scratchFilesDuringRender[0] > 0);
+        assertEquals(0, countFiles(scratch));
+        assertTrue(extractText(out.toByteArray()).contains("Row 499"));
+    }
+
+    @Test
+    void shouldAcceptPerRenderHeapBudget(@TempDir Path scratch) throws IOException {
+        PdfRenderer scratchRenderer = new PdfRenderer(PdfRenderer.UNLIMITED, scratch);
+        Template template = Template.builder()
+                .name("doc")
+                .heading("Hello {{name}}")
+                .data("name", "World")
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        scratchRenderer.render(template, out, 1024);
+
+        assertTrue(extractText(out.toByteArray()).contains("Hello World"));
+    }
+
+    @Test
+    void shouldRejectInvalidHeapBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new PdfRenderer(-2));
+    }
+
+    private static long countFiles(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void shouldBuildPagesInParallelWithSameLayoutAsSequential() throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add(Map.of("n", "Row " + i, "v", "Value & <" + i + ">"));
+        }
+        Template template = Template.builder()
+                .name("doc")
+                .heading("Report")
+                .table(List.of("N", "V"), List.of("{{n}}", "{{v}}"))
+                .paragraph("Total: 500")
+                .data("rows", rows)
+                .build();
+        PdfRenderer parallel = PdfRenderer.builder()
+                .parallelPages(ForkJoinPool.commonPool())
+                .pagesPerBatch(3)
+                .build();
+
+        byte[] expected = renderer.render(template).content();
+        byte[] actual = parallel.render(template).content();
+
+        try (PDDocument sequentialDoc = Loader.loadPDF(expected);
+             PDDocument parallelDoc = Loader.loadPDF(actual)) {
+            assertEquals(sequentialDoc.getNumberOfPages(), parallelDoc.getNumberOfPages());
+            for (PDPage page : parallelDoc.getPages()) {
+                assertEquals(1, countOperators(page).get("BT"));
+            }
+        }
+        assertEquals(extractText(expected), extractText(actual));
+    }
+
+    @Test
+    void shouldBuildPagesOnVirtualThreads() throws IOException {
+        Template template = Template.builder()
+                .name("doc")
+                .table(List.of("N"), List.of("{{n}}"))
+                .rows(IntStream.range(0, 300).mapToObj(i -> Map.<String, Object>of("n", "Row " + i)))
+                .build();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            PdfRenderer parallel = PdfRenderer.builder().parallelPages(executor).pagesPerBatch(2).build();
+            String text = extractText(parallel.render(template).content());
+
+            assertTrue(text.indexOf("Row 0") < text.indexOf("Row 150"));
+            assertTrue(text.indexOf("Row 150") < text.indexOf("Row 299"));
+        }
+    }
+
+    @Test
+    void shouldPropagateEncodingFailuresFromPageWorkers() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rows.add(Map.of("n", i == 150 ? "中" : "Row " + i));
+        }
+        Template template = Template.builder()
+                .name("doc")
+                .table(List.of("N"), List.of("{{n}}"))
+                .data("rows", rows)
+                .build();
+        PdfRenderer parallel = PdfRenderer.builder().parallelPages(ForkJoinPool.commonPool()).build();
+
+        assertThrows(IllegalArgumentException.class, () -> parallel.render(template));
+    }
+
+    @Test
+    void shouldRejectNonPositivePagesPerBatch() {
+        assertThrows(IllegalArgumentException.class, () -> PdfRenderer.builder().pagesPerBatch(0));
+    }
+
+    @Test
+    void shouldRenderColumnarRows() throws IOException {
+        Template template = Template.builder()
+                .name("doc")
+                .table(List.of("Name", "Age", "Score"), List.of("{{name}}", "{{age}}", "{{score}}"))
+                .rows(ColumnarRows.builder()
+                        .stringColumn("name").intColumn("age").doubleColumn("score")
+                        .addRow("Alice", 30, 9.5)
+                        .addRow("Bob", 25, 7.25)
+                        .build())
+                .build();
+
+        RenderResult result = renderer.render(template);
+        String text = extractText(result.content());
+
+        assertTrue(text.contains("Alice"));
+        assertTrue(text.contains("30"));
+        assertTrue(text.contains("7.25"));
+        assertEquals(2, result.rowCount());
+    }
+
+
+    @Test
+    void shouldBuildFreshFontsWhenPoolDisabled() throws IOException {
+        PdfRenderer unpooled = PdfRenderer.builder().idleFontSets(0).build();
+        Template template = Template.builder().name("doc").heading("Hello {{name}}").data("name", "World").build();
+
+        RenderResult result = unpooled.render(template);
+
+        assertEquals(0, unpooled.fontPool().idleCount());
+        assertTrue(extractText(result.content()).contains("Hello World"));
+        assertThrows(IllegalArgumentException.class, () -> PdfRenderer.builder().idleFontSets(-1));
+    }
+
     private String extractText(byte[] pdfBytes) throws IOException {
         try (PDDocument doc = Loader.loadPDF(pdfBytes)) {
             PDFTextStripper stripper = new PDFTextStripper();
@@ -0,0 +1,72 @@
+package com.rendertemplate.renderer;
+
+import com.rendertemplate.model.RenderFormat;
+import com.rendertemplate.model.Template;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderSizeHistoryTest {
+
+    private final RenderSizeHistory history = new RenderSizeHistory(16);
+
+    @Test
+    void shouldFallBackToRowsTimesColumnsWithoutHistory() {
+        Template template = tableTemplate("report", 100);
+
+        assertEquals(RenderSizeHistory.FALLBACK_OVERHEAD + 100L * 2 * RenderSizeHistory.FALLBACK_BYTES_PER_CELL,
+                history.estimate(template, RenderFormat.CSV));
+    }
+
+    @Test
+    void shouldReturnZeroForUnknownRowCountWithoutHistory() {
+        Template template = Template.builder()
+                .name("stream")
+                .table(List.of("A"), List.of("{{a}}"))
+                .rows(Stream.of(Map.of("a", 1)))
+                .build();
+
+        assertEquals(0, history.estimate(template, RenderFormat.CSV));
+    }
+
+    @Test
+    void shouldFitOverheadAndPerRowSize() {
+        for (int rows : new int[]{10, 100, 50, 200, 20}) {
+            history.record(tableTemplate("report", rows), RenderFormat.HTML, rows, 500 + 40L * rows);
+        }
+
+        assertEquals(500 + 40 * 1000, history.estimate(tableTemplate("report", 1000), RenderFormat.HTML));
+    }
+
+    @Test
+    void shouldScaleAverageWhenRowCountNeverChanges() {
+        history.record(tableTemplate("report", 10), RenderFormat.CSV, 10, 1000);
+
+        assertEquals(1000, history.estimate(tableTemplate("report", 10), RenderFormat.CSV));
+        assertEquals(2000, history.estimate(tableTemplate("report", 20), RenderFormat.CSV));
+    }
+
+    @Test
+    void shouldKeepFormatsApartAndBoundEntries() {
+        history.record(tableTemplate("report", 10), RenderFormat.CSV, 10, 1000);
+        assertNotEquals(1000, history.estimate(tableTemplate("report", 10), RenderFormat.HTML));
+
+        for (int i = 0; i < 40; i++) {
+            history.record(tableTemplate("t" + i, 1), RenderFormat.CSV, 1, 10);
+        }
+        assertEquals(16, history.size());
+    }
+
+    private static Template tableTemplate(String name, int rows) {
+        return Template.builder()
+                .name(name)
+                .table(List.of("A", "B"), List.of("{{a}}", "{{b}}"))
+                .data("rows", Collections.nCopies(rows, Map.of("a", 1, "b", 2)))
+                .build();
+    }
+}
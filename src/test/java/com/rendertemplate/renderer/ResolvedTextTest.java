@@ -0,0 +1,152 @@
+package com.rendertemplate.renderer;
+
+import com.rendertemplate.format.ValueFormat;
+import com.rendertemplate.model.ColumnarRows;
+import com.rendertemplate.model.RowSchema;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResolvedTextTest {
+
+    @Test
+    void shouldEscapeValuesButNotLiterals() {
+        ResolvedText text = new ResolvedText(CompiledText.compile("<b>{{v}}</b>")).bind(Map.of("v", "1 < 2"));
+        StringBuilder out = new StringBuilder();
+
+        text.appendTo(out, Escaper.html());
+
+        assertEquals("<b>1 &lt; 2</b>", out.toString());
+        assertEquals("<b>1 < 2</b>", text.text());
+    }
+
+    @Test
+    void shouldShareTextUntilRebound() {
+        ResolvedText text = new ResolvedText(CompiledText.compile("{{a}}-{{b}}"));
+
+        text.bind(Map.of("a", 1, "b", 2));
+        String first = text.text();
+
+        assertSame(first, text.text());
+        assertEquals("3-", text.bind(Map.of("a", 3)).text());
+    }
+
+    @Test
+    void shouldReturnValueDirectlyForSinglePlaceholder() {
+        ResolvedText text = new ResolvedText(CompiledText.compile("{{name}}")).bind(Map.of("name", "Alice"));
+
+        assertEquals("Alice", text.text());
+    }
+
+    @Test
+    void shouldKeepCopiedValuesAfterRebind() {
+        ResolvedText text = new ResolvedText(CompiledText.compile("<{{v}}>")).bind(Map.of("v", "a"));
+
+        ResolvedText copy = text.copy();
+        text.bind(Map.of("v", "b"));
+
+        assertEquals("<a>", copy.text());
+        assertEquals("<b>", text.text());
+    }
+
+    @Test
+    void shouldBindColumnarRowByIndex() {
+        ColumnarRows rows = ColumnarRows.builder()
+                .stringColumn("name").intColumn("qty").doubleColumn("price")
+                .addRow("Widget", 3, 2.5)
+                .build();
+        ResolvedText text = new ResolvedText(CompiledText.compile("{{qty}} x {{name}} @ {{price}}{{missing}}"));
+
+        int[] columns = text.columnsIn(rows.schema());
+
+        assertArrayEquals(new int[]{1, 0, 2, -1}, columns);
+        assertEquals("3 x Widget @ 2.5", text.bind(rows, 0, columns).text());
+    }
+
+    @Test
+    void shouldBindIndexedRowBySlot() {
+        RowSchema schema = RowSchema.of("name", "qty", "note");
+        ResolvedText text = new ResolvedText(CompiledText.compile("{{qty}} x {{name}}{{note}}{{missing}}"));
+
+        int[] slots = text.columnsIn(schema);
+
+        assertArrayEquals(new int[]{1, 0, 2, -1}, slots);
+        assertEquals("3 x Widget", text.bind(schema.row("Widget", 3, null), slots).text());
+        assertEquals("1 x Gadget!", text.bind(schema.row("Gadget", 1, "!"), slots).text());
+    }
+
+    @Test
+    void shouldFormatValuesPerPlaceholderKey() {
+        ResolvedText text = new ResolvedText(CompiledText.compile("{{price}} / {{qty}} / {{name}}"),
+                Map.of("price", ValueFormat.decimal(2)));
+
+        text.bind(Map.of("price", 3, "qty", 4.0, "name", "x"));
+        ResolvedText copy = text.copy();
+        text.bind(Map.of("price", 0.5, "qty", 1, "name", "y"));
+
+        assertEquals("0.50 / 1 / y", text.text());
+        assertEquals("3.00 / 4.0 / x", copy.text());
+    }
+
+    @Test
+    void shouldWriteColumnarPrimitivesLikeStrings() {
+        ColumnarRows rows = ColumnarRows.builder()
+                .intColumn("i").longColumn("l").doubleColumn("d")
+                .addRow(-7, Long.MAX_VALUE, 0.1)
+                .build();
+        ResolvedText text = new ResolvedText(CompiledText.compile("<{{i}},{{l}},{{d}}>"));
+        Utf8Buffer out = new Utf8Buffer();
+
+        text.bind(rows, 0, text.columnsIn(rows.schema())).appendTo(out, Escaper.html());
+
+        assertEquals("<-7,9223372036854775807,0.1>", out.toString());
+        assertEquals("<-7,9223372036854775807,0.1>", text.text());
+    }
+
+    @Test
+    void shouldEscapeWholeTextWithoutBuildingString() {
+        List<CharSequence> escaped = new ArrayList<>();
+        Escaper recording = new Escaper() {
+            @Override
+            public String escape(String value) {
+                return fail("escaped as a string: " + value);
+            }
+
+            @Override
+            public void escapeTo(String value, StringBuilder out) {
+                fail("escaped as a string: " + value);
+            }
+
+            @Override
+            public void escapeTo(CharSequence value, Utf8Buffer out) {
+                escaped.add(value.toString());
+                assertFalse(value instanceof String);
+                out.append(value.toString());
+            }
+        };
+        ResolvedText number = new ResolvedText(CompiledText.compile("{{qty}}")).bind(Map.of("qty", 42));
+        ResolvedText mixed = new ResolvedText(CompiledText.compile("{{qty}} x {{price}}"))
+                .bind(Map.of("qty", 3, "price", 2.5));
+        Utf8Buffer out = new Utf8Buffer();
+
+        number.appendEscapedTo(out, recording);
+        mixed.appendEscapedTo(out, recording);
+
+        assertEquals(List.of("42", "3 x 2.5"), escaped);
+        assertEquals("423 x 2.5", out.toString());
+    }
+
+    @Test
+    void shouldEscapeLiteralsWithWholeText() {
+        ResolvedText text = new ResolvedText(CompiledText.compile("{{a}}, {{b}}")).bind(Map.of("a", 1, "b", "x"));
+        Utf8Buffer out = new Utf8Buffer();
+
+        text.appendEscapedTo(out, Escaper.csv());
+
+        assertEquals("\"1, x\"", out.toString());
+    }
+}
@@ -0,0 +1,53 @@
+package com.rendertemplate.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Utf8BufferTest {
+
+    @Test
+    void shouldEncodeLikeStringGetBytes() {
+        String text = "ascii é ß € 中文 😀 end";
+
+        Utf8Buffer buffer = new Utf8Buffer(4).append(text);
+
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), buffer.toByteArray());
+    }
+
+    @Test
+    void shouldReplaceUnpairedSurrogates() {
+        String text = "a\uD83Db\uDE00";
+
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), new Utf8Buffer().append(text).toByteArray());
+    }
+
+    @Test
+    void shouldAppendRangesConstantsAndChars() {
+        Utf8Buffer buffer = new Utf8Buffer()
+                .append(Utf8Buffer.encode("<td>"))
+                .append("xxCaféxx", 2, 6)
+                .append('€')
+                .append(',');
+
+        assertEquals("<td>Café€,", buffer.toString());
+        assertEquals(13, buffer.length());
+    }
+
+    @Test
+    void shouldWriteAndResetContent() throws IOException {
+        Utf8Buffer buffer = new Utf8Buffer().append("first");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        buffer.writeTo(out);
+        buffer.reset();
+        buffer.append("second");
+
+        assertEquals("first", out.toString(StandardCharsets.UTF_8));
+        assertEquals("second", buffer.toString());
+    }
+}